@@ -0,0 +1,41 @@
+package no.utgdev.jdbcdsl;
+
+import java.util.Arrays;
+
+// Growable buffer of statement arguments, meant to be cleared and reused between renderings
+public final class ArgSink {
+    // Buffers grown by huge IN-lists are not kept around after being cleared
+    private static final int MAX_RETAINED_CAPACITY = 1024;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Object[] args;
+    private int size;
+
+    public ArgSink() {
+        this.args = new Object[INITIAL_CAPACITY];
+    }
+
+    public void add(Object arg) {
+        if (size == args.length) {
+            args = Arrays.copyOf(args, args.length * 2);
+        }
+        args[size++] = arg;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public Object[] toArray() {
+        return Arrays.copyOf(args, size);
+    }
+
+    public void clear() {
+        if (args.length > MAX_RETAINED_CAPACITY) {
+            args = new Object[INITIAL_CAPACITY];
+        } else {
+            Arrays.fill(args, 0, size, null);
+        }
+        size = 0;
+    }
+}
@@ -1,6 +1,8 @@
 package no.utgdev.jdbcdsl;
 
-public class AsClause implements SqlFragment, SelectQuery.ColumnFragment{
+import io.vavr.Tuple;
+
+public class AsClause implements SqlFragment.Rendered, SelectQuery.ColumnFragment{
     private final SelectQuery.ColumnFragment fragment;
     private final String name;
 
@@ -18,13 +20,16 @@ public class AsClause implements SqlFragment, SelectQuery.ColumnFragment{
     }
 
     @Override
-    public Object[] getArgs() {
-        return fragment.getArgs();
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        fragment.renderTo(sql, args);
+        if (sql != null) {
+            sql.append(" as ").append(name);
+        }
     }
 
     @Override
-    public String toSql() {
-        return fragment.toSql() + " as " + name;
+    public Object getShape() {
+        return Tuple.of(AsClause.class, fragment.getShape(), name);
     }
 
     public String getName() {
@@ -0,0 +1,97 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.StatementBuilder;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+class AsyncExecution {
+    static <R> CompletableFuture<R> run(Jdbi jdbi, Executor executor, Function<Handle, R> work) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        CancellableStatementBuilder statements = new CancellableStatementBuilder();
+
+        future.whenComplete((result, error) -> {
+            if (future.isCancelled()) {
+                statements.cancel();
+            }
+        });
+
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+
+            try (Handle handle = jdbi.open()) {
+                statements.delegate = handle.getStatementBuilder();
+                handle.setStatementBuilder(statements);
+                future.complete(work.apply(handle));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
+    private static class CancellableStatementBuilder implements StatementBuilder {
+        private volatile StatementBuilder delegate;
+        private volatile Statement current;
+        private volatile boolean cancelled;
+
+        @Override
+        public Statement create(Connection conn, StatementContext ctx) throws SQLException {
+            return track(delegate.create(conn, ctx));
+        }
+
+        @Override
+        public PreparedStatement create(Connection conn, String sql, StatementContext ctx) throws SQLException {
+            return track(delegate.create(conn, sql, ctx));
+        }
+
+        @Override
+        public CallableStatement createCall(Connection conn, String sql, StatementContext ctx) throws SQLException {
+            return track(delegate.createCall(conn, sql, ctx));
+        }
+
+        @Override
+        public void close(Connection conn, String sql, Statement stmt) throws SQLException {
+            current = null;
+            delegate.close(conn, sql, stmt);
+        }
+
+        @Override
+        public void close(Connection conn) {
+            delegate.close(conn);
+        }
+
+        private <S extends Statement> S track(S statement) throws SQLException {
+            current = statement;
+            if (cancelled) {
+                statement.close();
+                throw new SQLException("Execution was cancelled");
+            }
+            return statement;
+        }
+
+        void cancel() {
+            cancelled = true;
+            Statement statement = current;
+            if (statement != null) {
+                try {
+                    statement.cancel();
+                } catch (SQLException ignored) {
+                    // The statement may have completed or been closed in the meantime
+                }
+            }
+        }
+    }
+}
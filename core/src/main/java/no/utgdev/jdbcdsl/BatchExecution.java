@@ -0,0 +1,162 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Handle;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+class BatchExecution {
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    // Executes the data chunkSize rows at a time, so only one chunk is kept in memory.
+    // Each chunk is first prepared (values extracted from the rows), then executed. With pipelineDepth > 0 the
+    // preparation runs on SqlUtils.asyncExecutor up to pipelineDepth chunks ahead of the execution, while reading
+    // the data and executing the chunks stays on the callers thread.
+    // With commitEvery > 0 the chunks are written in transactions of commitEvery chunks each. That would commit
+    // the work of a caller already in a transaction, so it is rejected before anything is read or written.
+    static <T, C> BatchResult run(Handle db, Iterator<T> data, int chunkSize, int commitEvery, int pipelineDepth,
+                                  Function<List<T>, C> prepare, Function<C, int[]> execute) {
+        boolean transactional = commitEvery > 0;
+        if (transactional && db.isInTransaction()) {
+            throw new IllegalStateException("commitEvery cannot be used within a transaction, as it would commit the callers work.");
+        }
+
+        Iterator<List<T>> unprepared = new Chunks<>(data, chunkSize);
+        Pipeline<T, C> pipeline = pipelineDepth > 0 ? new Pipeline<>(unprepared, prepare, pipelineDepth) : null;
+        Iterator<C> chunks = pipeline != null ? pipeline : io.vavr.collection.Iterator.ofAll(unprepared).map(prepare);
+
+        if (transactional) {
+            db.begin();
+        }
+
+        long rows = 0;
+        long updateCount = 0;
+        int executed = 0;
+        try {
+            while (chunks.hasNext()) {
+                int[] counts = execute.apply(chunks.next());
+                updateCount += sum(counts);
+                rows += counts.length;
+                executed++;
+
+                if (transactional && executed % commitEvery == 0) {
+                    db.commit();
+                    db.begin();
+                }
+            }
+
+            if (transactional) {
+                db.commit();
+            }
+        } catch (Throwable e) {
+            if (transactional) {
+                db.rollback();
+            }
+            throw e;
+        } finally {
+            if (pipeline != null) {
+                pipeline.close();
+            }
+        }
+
+        return new BatchResult(rows, updateCount, executed);
+    }
+
+    private static long sum(int[] counts) {
+        long sum = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                sum += count;
+            }
+        }
+        return sum;
+    }
+
+    private static class Chunks<T> implements Iterator<List<T>> {
+        private final Iterator<T> data;
+        private final int chunkSize;
+
+        Chunks(Iterator<T> data, int chunkSize) {
+            this.data = data;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return data.hasNext();
+        }
+
+        @Override
+        public List<T> next() {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (chunk.size() < chunkSize && data.hasNext()) {
+                chunk.add(data.next());
+            }
+            if (chunk.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return chunk;
+        }
+    }
+
+    // Prepares up to depth chunks ahead on SqlUtils.asyncExecutor. The source is only ever read on the callers thread,
+    // as it may be backed by the same handle as the one executing the chunks (e.g a stream from executeToStream).
+    private static class Pipeline<T, C> implements Iterator<C> {
+        private final Iterator<List<T>> source;
+        private final Function<List<T>, C> prepare;
+        private final int depth;
+        private final Deque<CompletableFuture<C>> ahead = new ArrayDeque<>();
+
+        Pipeline(Iterator<List<T>> source, Function<List<T>, C> prepare, int depth) {
+            this.source = source;
+            this.prepare = prepare;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return !ahead.isEmpty();
+        }
+
+        @Override
+        public C next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CompletableFuture<C> next = ahead.poll();
+            fill();
+            try {
+                return next.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new SqlUtilsException(cause);
+            }
+        }
+
+        private void fill() {
+            while (ahead.size() < depth && source.hasNext()) {
+                List<T> chunk = source.next();
+                ahead.add(CompletableFuture.supplyAsync(() -> prepare.apply(chunk), SqlUtils.asyncExecutor));
+            }
+        }
+
+        // Chunks which have not started preparing are dropped, running ones finish on their own
+        void close() {
+            ahead.forEach((future) -> future.cancel(false));
+            ahead.clear();
+        }
+    }
+}
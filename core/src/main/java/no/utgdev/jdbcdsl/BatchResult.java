@@ -0,0 +1,11 @@
+package no.utgdev.jdbcdsl;
+
+import lombok.Value;
+
+// Totals of a chunked batch execution; updateCount excludes statements the driver reported without a count
+@Value
+public class BatchResult {
+    long rows;
+    long updateCount;
+    int chunks;
+}
@@ -0,0 +1,84 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.HandleCallback;
+import org.jdbi.v3.core.transaction.TransactionHandler;
+import org.jdbi.v3.core.transaction.TransactionIsolationLevel;
+
+// Invalidates cached results of tables written through the dsl once the jdbi-transaction is committed or rolled back.
+// Install with jdbi.setTransactionHandler(new CacheInvalidatingTransactionHandler(jdbi.getTransactionHandler()))
+public class CacheInvalidatingTransactionHandler implements TransactionHandler {
+    private final TransactionHandler delegate;
+
+    public CacheInvalidatingTransactionHandler(TransactionHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void begin(Handle handle) {
+        delegate.begin(handle);
+    }
+
+    @Override
+    public void commit(Handle handle) {
+        try {
+            delegate.commit(handle);
+        } finally {
+            ended(handle);
+        }
+    }
+
+    @Override
+    public void rollback(Handle handle) {
+        try {
+            delegate.rollback(handle);
+        } finally {
+            ended(handle);
+        }
+    }
+
+    @Override
+    public boolean isInTransaction(Handle handle) {
+        return delegate.isInTransaction(handle);
+    }
+
+    @Override
+    public void savepoint(Handle handle, String savepointName) {
+        delegate.savepoint(handle, savepointName);
+    }
+
+    @Override
+    public void rollbackToSavepoint(Handle handle, String savepointName) {
+        delegate.rollbackToSavepoint(handle, savepointName);
+    }
+
+    @Override
+    public void releaseSavepoint(Handle handle, String savepointName) {
+        delegate.releaseSavepoint(handle, savepointName);
+    }
+
+    @Override
+    public <R, X extends Exception> R inTransaction(Handle handle, HandleCallback<R, X> callback) throws X {
+        try {
+            return delegate.inTransaction(handle, callback);
+        } finally {
+            ended(handle);
+        }
+    }
+
+    @Override
+    public <R, X extends Exception> R inTransaction(Handle handle, TransactionIsolationLevel level, HandleCallback<R, X> callback) throws X {
+        try {
+            return delegate.inTransaction(handle, level, callback);
+        } finally {
+            ended(handle);
+        }
+    }
+
+    // Nested transactions are part of the outer one, and end with it
+    private void ended(Handle handle) {
+        if (!delegate.isInTransaction(handle)) {
+            SqlUtils.transactionEnded(handle);
+        }
+    }
+}
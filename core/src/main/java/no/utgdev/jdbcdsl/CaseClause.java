@@ -0,0 +1,102 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.collection.List;
+import no.utgdev.jdbcdsl.value.CastValue;
+import no.utgdev.jdbcdsl.where.WhereClause;
+
+public class CaseClause<T> implements SqlFragment.Rendered, SelectQuery.ColumnFragment {
+    public interface WhenClause<T> extends SqlFragment.Rendered {
+        static <T> WhenClause<T> when(WhereClause condition, CastValue<T> value) {
+            return new WhenWhereClause<T>(condition, value);
+        }
+
+        static <T> WhenClause<T> orElse(CastValue<T> value) {
+            return new WhenElseClause<T>(value);
+        }
+    }
+
+    static class WhenWhereClause<T> implements WhenClause {
+        private final WhereClause condition;
+        private final CastValue<T> value;
+
+        private WhenWhereClause(WhereClause condition, CastValue<T> value) {
+            this.condition = condition;
+            this.value = value;
+        }
+
+        @Override
+        public void renderTo(StringBuilder sql, ArgSink args) {
+            if (sql != null) {
+                sql.append("WHEN ");
+            }
+            condition.renderTo(sql, args);
+            if (sql != null) {
+                sql.append(" THEN ").append(value.getValuePlaceholder());
+            }
+            if (args != null && value.hasPlaceholder()) {
+                args.add(value.getSql());
+            }
+        }
+
+        @Override
+        public Object getShape() {
+            return Tuple.of(WhenWhereClause.class, condition.getShape(), value.getValuePlaceholder());
+        }
+    }
+
+    static class WhenElseClause<T> implements WhenClause {
+        private final CastValue value;
+
+        private WhenElseClause(CastValue value) {
+            this.value = value;
+        }
+
+        @Override
+        public void renderTo(StringBuilder sql, ArgSink args) {
+            if (sql != null) {
+                sql.append("ELSE ").append(value.getValuePlaceholder());
+            }
+            if (args != null && value.hasPlaceholder()) {
+                args.add(value.getSql());
+            }
+        }
+
+        @Override
+        public Object getShape() {
+            return Tuple.of(WhenElseClause.class, value.getValuePlaceholder());
+        }
+    }
+
+    private final List<WhenClause> clauses;
+
+    private CaseClause(WhenClause<T>[] clauses) {
+        this.clauses = List.of(clauses);
+    }
+
+
+    public static <T> CaseClause of(WhenClause<T>... clauses) {
+        return new CaseClause<>(clauses);
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append("CASE");
+        }
+        for (WhenClause clause : clauses) {
+            if (sql != null) {
+                sql.append(' ');
+            }
+            clause.renderTo(sql, args);
+        }
+        if (sql != null) {
+            sql.append(" END");
+        }
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(CaseClause.class, clauses.map(WhenClause::getShape));
+    }
+}
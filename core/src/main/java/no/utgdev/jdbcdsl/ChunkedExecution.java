@@ -0,0 +1,165 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import lombok.SneakyThrows;
+import no.utgdev.jdbcdsl.order.OrderByExpression;
+import no.utgdev.jdbcdsl.order.OrderOperator;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+
+import java.sql.ResultSet;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+class ChunkedExecution {
+    // Runs the chunks one by one on the given handle, or in parallel on separate handles if jdbi is given.
+    // If the handle is in a transaction the chunks always run on it, so that they are part of that transaction
+    static <R> List<R> run(Handle db, Jdbi jdbi, Executor executor, List<WhereClause> chunks, BiFunction<Handle, WhereClause, R> work) {
+        if (jdbi == null || db != null && db.isInTransaction()) {
+            Handle handle = Helpers.requireHandle(db);
+            return chunks.stream()
+                    .map((chunk) -> work.apply(handle, chunk))
+                    .collect(Collectors.toList());
+        }
+
+        List<CompletableFuture<R>> futures = chunks.stream()
+                .map((chunk) -> AsyncExecution.run(jdbi, executor, (handle) -> work.apply(handle, chunk)))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+        } catch (CompletionException e) {
+            futures.forEach((future) -> future.cancel(true));
+            throw new SqlUtilsException(e.getCause());
+        }
+    }
+
+    // k-way merge of chunks which are already sorted by their keys
+    static <T> List<T> merge(List<List<Tuple2<Object[], T>>> chunks, io.vavr.collection.List<OrderByExpression> orderBy) {
+        Comparator<Head<T>> comparator = Comparator.comparing((head) -> head.current._1, keyComparator(orderBy));
+        PriorityQueue<Head<T>> heads = new PriorityQueue<>(Math.max(1, chunks.size()), comparator);
+        for (List<Tuple2<Object[], T>> chunk : chunks) {
+            Head<T> head = new Head<>(chunk.iterator());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+
+        List<T> merged = new ArrayList<>();
+        while (!heads.isEmpty()) {
+            Head<T> head = heads.poll();
+            merged.add(head.current._2);
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    // Only numeric and temporal keys are merged, as they are ordered the same way in java as in the database.
+    // Strings depend on the collation of the database, and are not merged along with any other type.
+    // Nulls are only merged when it is known how the database sorts them
+    static <T> boolean isMergeable(List<List<Tuple2<Object[], T>>> chunks) {
+        boolean nullsOrdered = SqlUtils.db != SqlUtils.DbSupport.UNKNOWN;
+        for (List<Tuple2<Object[], T>> chunk : chunks) {
+            for (Tuple2<Object[], T> row : chunk) {
+                for (Object key : row._1) {
+                    boolean ordered = key == null ?
+                            nullsOrdered :
+                            key instanceof Number || key instanceof Date || key instanceof Temporal;
+                    if (!ordered) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    // Nulls are sorted the way the database does it; last in ascending order on Oracle, first on MSSQL
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object[]> keyComparator(io.vavr.collection.List<OrderByExpression> orderBy) {
+        boolean nullsFirst = SqlUtils.db == SqlUtils.DbSupport.MSSQL;
+
+        return (a, b) -> {
+            for (int i = 0; i < orderBy.size(); i++) {
+                Comparable<Object> x = (Comparable<Object>) a[i];
+                Comparable<Object> y = (Comparable<Object>) b[i];
+
+                int result;
+                if (x == null || y == null) {
+                    result = x == y ? 0 : (x == null) == nullsFirst ? -1 : 1;
+                } else {
+                    result = x.compareTo(y);
+                }
+
+                if (result != 0) {
+                    return orderBy.get(i).getOperator() == OrderOperator.ASC ? result : -result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    // Reads the row, and the merge keys from the last columns of the select. The chunk queries add the
+    // orderBy-expressions as aliased columns at the end, so they are found by position whatever their labels are
+    static class KeyedMapper<T> implements Function<ResultSet, Tuple2<Object[], T>> {
+        private final int keys;
+        private final Function<ResultSet, T> mapper;
+
+        KeyedMapper(int keys, Function<ResultSet, T> mapper) {
+            this.keys = keys;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public Tuple2<Object[], T> apply(ResultSet rs) {
+            return specialize(rs).apply(rs);
+        }
+
+        @SneakyThrows
+        Function<ResultSet, Tuple2<Object[], T>> specialize(ResultSet rs) {
+            int first = rs.getMetaData().getColumnCount() - keys + 1;
+            Function<ResultSet, T> rows = Helpers.specialize(mapper, rs);
+            SQLFunction<ResultSet, Tuple2<Object[], T>> keyed = (row) -> {
+                Object[] values = new Object[keys];
+                for (int i = 0; i < keys; i++) {
+                    values[i] = row.getObject(first + i);
+                }
+                return Tuple.of(values, rows.apply(row));
+            };
+            return keyed;
+        }
+    }
+
+    private static class Head<T> {
+        private final Iterator<Tuple2<Object[], T>> rows;
+        private Tuple2<Object[], T> current;
+
+        Head(Iterator<Tuple2<Object[], T>> rows) {
+            this.rows = rows;
+        }
+
+        boolean advance() {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            current = rows.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package no.utgdev.jdbcdsl;
+
+import lombok.SneakyThrows;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+
+public class DeleteQuery {
+    private final Handle db;
+    private final String tableName;
+    private WhereClause where;
+    // Defaults to the limit of SqlUtils.db when executed
+    private Integer maxInSize;
+    private Jdbi chunkJdbi;
+    private Executor chunkExecutor;
+
+    DeleteQuery(Handle db, String tableName) {
+        this.db = db;
+        this.tableName = tableName;
+    }
+
+    public DeleteQuery where(WhereClause where) {
+        this.where = where;
+        return this;
+    }
+
+    // IN-lists with more elements are split, and deleted with one statement per chunk. Defaults to SqlUtils.db.maxInSize
+    public DeleteQuery maxInSize(int maxInSize) {
+        if (maxInSize < 1) {
+            throw new SqlUtilsException("'maxInSize' must be at least 1");
+        }
+        this.maxInSize = maxInSize;
+        return this;
+    }
+
+    // Chunks are deleted in parallel, each on its own handle, instead of one by one on this query's handle.
+    // Ignored when this query's handle is in a transaction, so that a failing chunk rolls back all of them
+    public DeleteQuery parallelChunks(Jdbi jdbi) {
+        return parallelChunks(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public DeleteQuery parallelChunks(Jdbi jdbi, Executor executor) {
+        this.chunkJdbi = jdbi;
+        this.chunkExecutor = executor;
+        return this;
+    }
+
+    @SneakyThrows
+    public int execute() {
+        validate();
+
+        // Deletes which cannot match any rows are never sent to the database
+        WhereClause where = this.where.simplify();
+        if (WhereClause.alwaysFalse().equals(where)) {
+            return 0;
+        }
+
+        int maxInSize = this.maxInSize != null ? this.maxInSize : SqlUtils.db.maxInSize;
+        List<WhereClause> chunks = where.splitIn(maxInSize);
+        if (chunks.size() > 1) {
+            return ChunkedExecution.run(db, chunkJdbi, chunkExecutor, chunks, (handle, chunk) -> new DeleteQuery(handle, tableName)
+                    .where(chunk)
+                    .maxInSize(maxInSize)
+                    .execute()
+            ).stream().mapToInt(Integer::intValue).sum();
+        }
+
+        ArgSink args = new ArgSink();
+        String sql = renderDeleteStatement(args, where);
+        int result = Helpers.bindAll(Helpers.requireHandle(db).createUpdate(sql), args.toArray()).execute();
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    // Runs execute() on the async handle, so it is chunked and short-circuited the same way
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi, Executor executor) {
+        validate();
+        DeleteQuery query = copy(null);
+        return AsyncExecution.run(jdbi, executor, (handle) -> query.copy(handle).execute());
+    }
+
+    public StatementTemplate compile() {
+        validate();
+
+        ArgSink args = new ArgSink();
+        String sql = renderDeleteStatement(args, where.simplify());
+        return new StatementTemplate(tableName, sql, args.toArray());
+    }
+
+    private DeleteQuery copy(Handle db) {
+        DeleteQuery copy = new DeleteQuery(db, tableName);
+        copy.where = this.where;
+        copy.maxInSize = this.maxInSize;
+        copy.chunkJdbi = this.chunkJdbi;
+        copy.chunkExecutor = this.chunkExecutor;
+        return copy;
+    }
+
+    private void validate() {
+        if (tableName == null || this.where == null) {
+            throw new SqlUtilsException(
+                    "I need more data to create a sql-statement. " +
+                            "Did you remember to specify table and a where clause?"
+            );
+        }
+    }
+
+    // The where-clause is simplified by the caller, execute() has done so already
+    private String renderDeleteStatement(ArgSink args, WhereClause where) {
+        StringBuilder sql = new StringBuilder("DELETE FROM ").append(tableName).append(" WHERE ");
+        where.renderTo(sql, args);
+        return sql.toString();
+    }
+
+    @Override
+    public String toString() {
+        return renderDeleteStatement(null, where.simplify());
+    }
+}
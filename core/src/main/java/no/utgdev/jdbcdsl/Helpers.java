@@ -0,0 +1,165 @@
+package no.utgdev.jdbcdsl;
+
+import no.utgdev.jdbcdsl.mapping.QueryMapping;
+import no.utgdev.jdbcdsl.value.FunctionValue;
+import no.utgdev.jdbcdsl.value.Value;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.argument.Argument;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.StatementContext;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.jdbi.v3.core.statement.SqlStatement;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+class Helpers {
+    static Handle requireHandle(Handle db) {
+        if (db == null) {
+            throw new SqlUtilsException(
+                    "This query was created without a handle. " +
+                            "Did you mean to compile() it to a template?"
+            );
+        }
+        return db;
+    }
+
+    // jdbi only finds argument factories for plain objects, so Arguments (e.g array-parameters) must be bound explicitly
+    static <S extends SqlStatement<S>> S bind(S statement, int position, Object value) {
+        return value instanceof Argument ? statement.bind(position, (Argument) value) : statement.bind(position, value);
+    }
+
+    static <S extends SqlStatement<S>> S bindAll(S statement, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            bind(statement, i, args[i]);
+        }
+        return statement;
+    }
+
+    // jdbi specializes the mapper once per ResultSet, which lets a QueryMapping resolve its column indices up front
+    static <T> RowMapper<T> rowMapper(Function<ResultSet, T> mapper) {
+        if (!(mapper instanceof QueryMapping || mapper instanceof ChunkedExecution.KeyedMapper)) {
+            return (rs, rowNum) -> mapper.apply(rs);
+        }
+
+        return new RowMapper<T>() {
+            @Override
+            public T map(ResultSet rs, StatementContext ctx) {
+                return mapper.apply(rs);
+            }
+
+            @Override
+            public RowMapper<T> specialize(ResultSet rs, StatementContext ctx) {
+                Function<ResultSet, T> rows = Helpers.specialize(mapper, rs);
+                return (row, rowNum) -> rows.apply(row);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> Function<ResultSet, T> specialize(Function<ResultSet, T> mapper, ResultSet rs) {
+        if (mapper instanceof QueryMapping) {
+            return (Function<ResultSet, T>) ((QueryMapping<?>) mapper).rowMapper(rs);
+        } else if (mapper instanceof ChunkedExecution.KeyedMapper) {
+            return (Function<ResultSet, T>) ((ChunkedExecution.KeyedMapper<?>) mapper).specialize(rs);
+        }
+        return mapper;
+    }
+
+    static String createInsertSqlStatement(String tableName, Map<String, Value> values) {
+        return createInsertSqlStatement(tableName, values, 1);
+    }
+
+    // Rows which fit in one statement without exceeding the bind-parameter limit of SqlUtils.db, but at least one
+    static int rowsPerStatement(int maxRows, int paramsPerRow) {
+        return Math.max(1, Math.min(maxRows, SqlUtils.db.maxBindParameters / Math.max(1, paramsPerRow)));
+    }
+
+    // Inserts several rows in one statement, on Oracle as INSERT ALL since it lacks multi-row VALUES
+    static String createInsertSqlStatement(String tableName, Map<String, Value> values, int rows) {
+        StringBuilder into = new StringBuilder("into ").append(tableName).append(" (");
+        boolean first = true;
+        for (String column : values.keySet()) {
+            into.append(first ? "" : ",").append(column);
+            first = false;
+        }
+        into.append(") values ");
+
+        StringBuilder group = new StringBuilder("(");
+        first = true;
+        for (Value value : values.values()) {
+            group.append(first ? "" : ",").append(value.getValuePlaceholder());
+            first = false;
+        }
+        group.append(")");
+
+        if (rows > 1 && SqlUtils.db == SqlUtils.DbSupport.ORACLE) {
+            StringBuilder sql = new StringBuilder("insert all");
+            for (int i = 0; i < rows; i++) {
+                sql.append(' ').append(into).append(group);
+            }
+            return sql.append(" select 1 from dual").toString();
+        }
+
+        StringBuilder sql = new StringBuilder("insert ").append(into).append(group);
+        for (int i = 1; i < rows; i++) {
+            sql.append(",").append(group);
+        }
+        return sql.toString();
+    }
+
+    static String createSetStatement(Map<String, Value> params) {
+        StringBuilder sql = new StringBuilder(" set ");
+        boolean first = true;
+        for (Map.Entry<String, Value> entry : params.entrySet()) {
+            sql.append(first ? "" : ", ").append(entry.getKey()).append(" = ").append(entry.getValue().getValuePlaceholder());
+            first = false;
+        }
+        return sql.toString();
+    }
+
+    static void addValueArgs(Map<String, Value> values, ArgSink args) {
+        for (Value value : values.values()) {
+            if (value.hasPlaceholder()) {
+                args.add(value.getSql());
+            }
+        }
+    }
+
+    // Extraction of the values is kept apart from binding them, so that it can be done ahead on another thread
+    static <T> List<Object[]> extractBatchData(List<T> data, Map<String, Value> values, Function<T, WhereClause> whereClause) {
+        List<Object[]> rows = new ArrayList<>(data.size());
+        ArgSink args = new ArgSink();
+        for (T row : data) {
+            args.clear();
+            rows.add(extractRow(row, values, whereClause, args));
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Object[] extractRow(T row, Map<String, Value> values, Function<T, WhereClause> whereClause, ArgSink args) {
+        for (Value param : values.values()) {
+            if (param instanceof FunctionValue) {
+                Function<T, Object> config = ((FunctionValue<T>) param).getSql();
+                args.add(config.apply(row));
+            }
+        }
+
+        if (Objects.nonNull(whereClause)) {
+            whereClause.apply(row).renderTo(null, args);
+        }
+        return args.toArray();
+    }
+
+    static void bindBatchData(PreparedBatch batch, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            bindAll(batch, row).add();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import no.utgdev.jdbcdsl.value.ConstantValue;
+import no.utgdev.jdbcdsl.value.FunctionValue;
+import no.utgdev.jdbcdsl.value.Value;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.jdbi.v3.core.statement.SqlStatement;
+
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class InsertBatchQuery<T> implements DatachangeingQuery<InsertBatchQuery<T>> {
+    public enum Strategy {
+        // One jdbc batch-entry per row
+        PREPARED_BATCH,
+        // Many rows per statement, as insert ... values (..), (..) or INSERT ALL on Oracle
+        MULTI_ROW_VALUES
+    }
+
+    // MSSQL accepts at most 1000 rows in one VALUES-clause
+    static final int DEFAULT_MAX_ROWS_PER_STATEMENT = 1000;
+    private static final StatementCache multiRowStatements = new StatementCache(256);
+
+    private final Handle db;
+    private final String tableName;
+    private final Map<String, Value> values;
+    private int chunkSize = BatchExecution.DEFAULT_CHUNK_SIZE;
+    private int commitEvery;
+    private Strategy strategy = Strategy.PREPARED_BATCH;
+    private int maxRowsPerStatement = DEFAULT_MAX_ROWS_PER_STATEMENT;
+    private int pipelineDepth;
+
+    public InsertBatchQuery(Handle db, String tableName) {
+        this.db = db;
+        this.tableName = tableName;
+        this.values = new LinkedHashMap<>();
+    }
+
+    InsertBatchQuery(Handle db, InsertBatchQuery<T> query) {
+        this.db = db;
+        this.tableName = query.tableName;
+        this.values = new LinkedHashMap<>(query.values);
+        this.chunkSize = query.chunkSize;
+        this.commitEvery = query.commitEvery;
+        this.strategy = query.strategy;
+        this.maxRowsPerStatement = query.maxRowsPerStatement;
+        this.pipelineDepth = query.pipelineDepth;
+    }
+
+    public InsertBatchQuery<T> set(String param, Object paramValue) {
+        if (paramValue.getClass().isAssignableFrom(Function.class)) {
+            return this.add(param, (Function<T, Object>) paramValue);
+        } else {
+            return this.add(param, (ignore) -> paramValue);
+        }
+    }
+
+    public InsertBatchQuery<T> add(String param, Function<T, Object> paramValue) {
+        return this.add(param, new FunctionValue(paramValue));
+    }
+
+    public InsertBatchQuery<T> add(String param, DbConstants value) {
+        return this.add(param, Value.of(value));
+    }
+
+    public InsertBatchQuery<T> add(String param, Value value) {
+        if (this.values.containsKey(param)) {
+            throw new IllegalArgumentException(String.format("Param[%s] was already set.", param));
+        }
+        this.values.put(param, value);
+        return this;
+    }
+
+    // Number of rows per batch when executing an Iterable, Stream or Iterator
+    public InsertBatchQuery<T> chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new SqlUtilsException("chunkSize must be positive, was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    // Commit after every n chunks when executing an Iterable, Stream or Iterator, 0 disables it
+    // Not allowed when the handle is in a transaction, since the callers work would be committed along with it
+    public InsertBatchQuery<T> commitEvery(int chunks) {
+        if (chunks < 0) {
+            throw new SqlUtilsException("commitEvery cannot be negative, was " + chunks);
+        }
+        this.commitEvery = chunks;
+        return this;
+    }
+
+    public InsertBatchQuery<T> strategy(Strategy strategy) {
+        this.strategy = strategy;
+        return this;
+    }
+
+    // Upper limit of rows per statement with MULTI_ROW_VALUES, which is further limited by SqlUtils.db.maxBindParameters
+    public InsertBatchQuery<T> maxRowsPerStatement(int maxRowsPerStatement) {
+        if (maxRowsPerStatement < 1) {
+            throw new SqlUtilsException("maxRowsPerStatement must be positive, was " + maxRowsPerStatement);
+        }
+        this.maxRowsPerStatement = maxRowsPerStatement;
+        return this;
+    }
+
+    // Extracts the values of the next chunks on another thread while the current chunk executes,
+    // when executing an Iterable, Stream or Iterator. Depth is the number of chunks extracted ahead, 0 disables it.
+    public InsertBatchQuery<T> pipelined(int depth) {
+        if (depth < 0) {
+            throw new SqlUtilsException("Pipeline depth cannot be negative, was " + depth);
+        }
+        this.pipelineDepth = depth;
+        return this;
+    }
+
+    public int[] execute(List<T> data) {
+        if (data.isEmpty()) {
+            return new int[0];
+        }
+        int[] result = executeChunk(data);
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public BatchResult execute(Iterable<T> data) {
+        return execute(data.iterator());
+    }
+
+    public BatchResult execute(Stream<T> data) {
+        return execute(data.iterator());
+    }
+
+    public BatchResult execute(Iterator<T> data) {
+        Handle handle = Helpers.requireHandle(db);
+        try {
+            return BatchExecution.run(handle, data, chunkSize, commitEvery, pipelineDepth, this::extract, this::executeRows);
+        } finally {
+            SqlUtils.tableChanged(db, tableName);
+        }
+    }
+
+    private int[] executeChunk(List<T> data) {
+        return executeRows(extract(data));
+    }
+
+    private List<Object[]> extract(List<T> data) {
+        return Helpers.extractBatchData(data, values, null);
+    }
+
+    private int[] executeRows(List<Object[]> rows) {
+        if (strategy == Strategy.MULTI_ROW_VALUES && !(SqlUtils.db == SqlUtils.DbSupport.ORACLE && usesSequence())) {
+            return executeMultiRow(rows);
+        }
+
+        String sql = Helpers.createInsertSqlStatement(this.tableName, this.values);
+        PreparedBatch batch = db.prepareBatch(sql);
+        Helpers.bindBatchData(batch, rows);
+        return batch.execute();
+    }
+
+    // Full groups share one statement and are sent as one jdbc-batch, the remaining rows as a single statement.
+    // The result has one count per row like PREPARED_BATCH, with SUCCESS_NO_INFO for groups not reporting one per row.
+    private int[] executeMultiRow(List<Object[]> data) {
+        int paramsPerRow = Math.max(1, (int) values.values().stream().filter((value) -> value instanceof FunctionValue).count());
+        int groupSize = Math.min(Helpers.rowsPerStatement(maxRowsPerStatement, paramsPerRow), data.size());
+        int fullGroups = data.size() / groupSize;
+        int remaining = data.size() % groupSize;
+        int[] result = new int[data.size()];
+
+        if (fullGroups > 0) {
+            PreparedBatch batch = db.prepareBatch(multiRowSql(groupSize));
+            for (int group = 0; group < fullGroups; group++) {
+                bindRows(batch, data.subList(group * groupSize, (group + 1) * groupSize)).add();
+            }
+            int[] counts = batch.execute();
+            for (int group = 0; group < fullGroups; group++) {
+                fillCounts(result, group * groupSize, groupSize, counts[group]);
+            }
+        }
+
+        if (remaining > 0) {
+            int offset = fullGroups * groupSize;
+            int count = bindRows(db.createUpdate(multiRowSql(remaining)), data.subList(offset, data.size())).execute();
+            fillCounts(result, offset, remaining, count);
+        }
+        return result;
+    }
+
+    private static <S extends SqlStatement<S>> S bindRows(S statement, List<Object[]> rows) {
+        int position = 0;
+        for (Object[] row : rows) {
+            for (Object arg : row) {
+                Helpers.bind(statement, position++, arg);
+            }
+        }
+        return statement;
+    }
+
+    private String multiRowSql(int rows) {
+        Object shape = Tuple.of(tableName, placeholders(), rows, SqlUtils.db);
+        String sql = multiRowStatements.get(shape);
+        if (sql == null) {
+            sql = Helpers.createInsertSqlStatement(tableName, values, rows);
+            multiRowStatements.put(shape, sql);
+        }
+        return sql;
+    }
+
+    private List<String> placeholders() {
+        List<String> placeholders = new ArrayList<>(values.size());
+        values.forEach((column, value) -> placeholders.add(column + "=" + value.getValuePlaceholder()));
+        return placeholders;
+    }
+
+    // INSERT ALL evaluates NEXTVAL once for the whole statement, which would give every row the same id
+    private boolean usesSequence() {
+        return values.values().stream()
+                .anyMatch((value) -> value instanceof ConstantValue && value.getValuePlaceholder().toUpperCase().contains("NEXTVAL"));
+    }
+
+    private static void fillCounts(int[] result, int offset, int rows, int count) {
+        Arrays.fill(result, offset, offset + rows, count == rows ? 1 : Statement.SUCCESS_NO_INFO);
+    }
+
+    public WriteBehindBuffer<T> writeBehind(Jdbi jdbi) {
+        return writeBehind(jdbi, 500, Duration.ofMillis(100), 10_000);
+    }
+
+    // Queues rows from many threads and inserts them in batches, see WriteBehindBuffer.
+    // Each batch is written in one transaction, so it cannot be combined with commitEvery
+    public WriteBehindBuffer<T> writeBehind(Jdbi jdbi, int flushSize, Duration flushInterval, int capacity) {
+        if (commitEvery > 0) {
+            throw new SqlUtilsException("commitEvery cannot be combined with writeBehind, each batch is written in one transaction");
+        }
+        return new WriteBehindBuffer<>(jdbi, new InsertBatchQuery<>(null, this), flushSize, flushInterval, capacity);
+    }
+
+    // Writes on several connections at once, see PartitionedWrite.
+    // Each partition is written in one transaction, so it cannot be combined with commitEvery
+    public PartitionedWrite<T> partitioned(Jdbi jdbi) {
+        if (commitEvery > 0) {
+            throw new SqlUtilsException("commitEvery cannot be combined with partitioned, each partition is written in one transaction");
+        }
+        InsertBatchQuery<T> query = new InsertBatchQuery<>(null, this);
+        return new PartitionedWrite<>(jdbi, (handle, rows) -> new InsertBatchQuery<>(handle, query).execute(rows.iterator()));
+    }
+
+    public CompletableFuture<int[]> executeAsync(Jdbi jdbi, List<T> data) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor, data);
+    }
+
+    public CompletableFuture<int[]> executeAsync(Jdbi jdbi, Executor executor, List<T> data) {
+        InsertBatchQuery<T> query = new InsertBatchQuery<>(null, this);
+        return AsyncExecution.run(jdbi, executor, (handle) -> new InsertBatchQuery<>(handle, query).execute(data));
+    }
+}
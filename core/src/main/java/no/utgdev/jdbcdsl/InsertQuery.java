@@ -2,9 +2,12 @@ package no.utgdev.jdbcdsl;
 
 import no.utgdev.jdbcdsl.value.Value;
 import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
 
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class InsertQuery implements DatachangeingQuery<InsertQuery>{
     private final Handle db;
@@ -35,15 +38,29 @@ public class InsertQuery implements DatachangeingQuery<InsertQuery>{
 
     public int execute() {
         String sql = Helpers.createInsertSqlStatement(this.tableName, this.insertParams);
-        Object[] args = insertParams
-                .values()
-                .stream()
-                .filter(Value::hasPlaceholder)
-                .map(Value::getSql)
-                .toArray();
+        int result = Helpers.bindAll(Helpers.requireHandle(db).createUpdate(sql), createSqlArgumentArray()).execute();
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor);
+    }
 
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi, Executor executor) {
+        StatementTemplate template = compile();
+        return AsyncExecution.run(jdbi, executor, template::execute);
+    }
+
+    public StatementTemplate compile() {
+        String sql = Helpers.createInsertSqlStatement(this.tableName, this.insertParams);
+        return new StatementTemplate(tableName, sql, createSqlArgumentArray());
+    }
 
-        return db.execute(sql, args);
+    private Object[] createSqlArgumentArray() {
+        ArgSink args = new ArgSink();
+        Helpers.addValueArgs(insertParams, args);
+        return args.toArray();
     }
 
     public String toString() {
@@ -0,0 +1,95 @@
+package no.utgdev.jdbcdsl;
+
+import java.util.Map;
+import java.util.Objects;
+
+public final class Param {
+    private final String name;
+    private final int index;
+
+    private Param(String name, int index) {
+        this.name = name;
+        this.index = index;
+    }
+
+    public static Param named(String name) {
+        if (name == null || name.length() == 0) {
+            throw new SqlUtilsException("'name' cannot be null or empty");
+        }
+        return new Param(name, -1);
+    }
+
+    public static Param at(int index) {
+        if (index < 0) {
+            throw new SqlUtilsException("'index' cannot be negative");
+        }
+        return new Param(null, index);
+    }
+
+    static int[] findSlots(Object[] args) {
+        int count = 0;
+        for (Object arg : args) {
+            if (arg instanceof Param) {
+                count++;
+            }
+        }
+
+        int[] slots = new int[count];
+        for (int i = 0, j = 0; i < args.length; i++) {
+            if (args[i] instanceof Param) {
+                slots[j++] = i;
+            }
+        }
+        return slots;
+    }
+
+    static Object[] resolve(Object[] args, int[] slots, Object[] values) {
+        if (slots.length == 0) {
+            return args;
+        }
+
+        Object[] resolved = args.clone();
+        for (int slot : slots) {
+            Param param = (Param) args[slot];
+            if (param.index < 0 || param.index >= values.length) {
+                throw new SqlUtilsException("No positional value given for " + param);
+            }
+            resolved[slot] = values[param.index];
+        }
+        return resolved;
+    }
+
+    static Object[] resolve(Object[] args, int[] slots, Map<String, ?> values) {
+        if (slots.length == 0) {
+            return args;
+        }
+
+        Object[] resolved = args.clone();
+        for (int slot : slots) {
+            Param param = (Param) args[slot];
+            if (param.name == null || !values.containsKey(param.name)) {
+                throw new SqlUtilsException("No named value given for " + param);
+            }
+            resolved[slot] = values.get(param.name);
+        }
+        return resolved;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Param param = (Param) o;
+        return index == param.index && Objects.equals(name, param.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, index);
+    }
+
+    @Override
+    public String toString() {
+        return name != null ? "Param[" + name + "]" : "Param[" + index + "]";
+    }
+}
@@ -0,0 +1,157 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Jdbi;
+
+import java.math.BigInteger;
+import java.sql.ResultSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+public class PartitionedScan<T> {
+    enum Strategy {
+        RANGE, HASH
+    }
+
+    private final Jdbi jdbi;
+    private final SelectQuery<T> query;
+    private Strategy strategy;
+    private String column;
+    private int partitions;
+    private Executor executor;
+
+    PartitionedScan(Jdbi jdbi, SelectQuery<T> query) {
+        this.jdbi = jdbi;
+        this.query = query;
+    }
+
+    // Splits MIN(column)..MAX(column) into equally sized ranges, column must be numeric
+    public PartitionedScan<T> byRange(String column, int partitions) {
+        return partitionBy(Strategy.RANGE, column, partitions);
+    }
+
+    // Splits on ABS(MOD(column, partitions)), column must be an integer-type
+    public PartitionedScan<T> byHash(String column, int partitions) {
+        return partitionBy(Strategy.HASH, column, partitions);
+    }
+
+    // Defaults to a thread per partition, pass a virtual-thread executor where available
+    public PartitionedScan<T> executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    // The consumer is called concurrently from all partitions, and must be thread-safe
+    public void forEach(Consumer<? super T> consumer) {
+        if (strategy == null) {
+            throw new SqlUtilsException("Did you remember to specify byRange or byHash?");
+        }
+        // Each partition would get its own page, and there is no common order to page the combined rows by
+        if (query.isPaged()) {
+            throw new SqlUtilsException("Partitioned scans cannot be combined with limit or offset.");
+        }
+
+        List<WhereClause> partitionClauses = strategy == Strategy.RANGE ? rangePartitions() : hashPartitions();
+
+        ExecutorService ownExecutor = executor == null ? Executors.newFixedThreadPool(partitionClauses.size()) : null;
+        Executor scanExecutor = executor == null ? ownExecutor : executor;
+        try {
+            CompletableFuture<?>[] scans = partitionClauses
+                    .map((partition) -> CompletableFuture.runAsync(() -> scan(partition, consumer), scanExecutor))
+                    .toJavaList()
+                    .toArray(new CompletableFuture<?>[0]);
+
+            CompletableFuture.allOf(scans).join();
+        } catch (CompletionException e) {
+            throw new SqlUtilsException(e.getCause());
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    private PartitionedScan<T> partitionBy(Strategy strategy, String column, int partitions) {
+        if (partitions < 1) {
+            throw new SqlUtilsException("'partitions' must be at least 1");
+        }
+        this.strategy = strategy;
+        this.column = column;
+        this.partitions = partitions;
+        return this;
+    }
+
+    private void scan(WhereClause partition, Consumer<? super T> consumer) {
+        jdbi.useHandle((handle) -> query.copy(handle, partition).forEach(consumer));
+    }
+
+    private List<WhereClause> rangePartitions() {
+        SQLFunction<ResultSet, Tuple2<Long, Long>> minMaxMapper = (rs) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : Tuple.of(min, rs.getLong(2));
+        };
+        Tuple2<Long, Long> minMax = jdbi.withHandle((handle) -> query
+                .derive(handle, minMaxMapper)
+                .column("MIN(" + column + ")")
+                .column("MAX(" + column + ")")
+                .execute()
+                .getOrNull()
+        );
+
+        WhereClause isNull = WhereClause.isNull(column);
+        if (minMax == null) {
+            return List.of(isNull);
+        }
+
+        List<Long> bounds = rangeBounds(minMax._1, minMax._2, partitions);
+        int count = bounds.size() - 1;
+
+        List<WhereClause> clauses = List.empty();
+        for (int i = 0; i < count; i++) {
+            long lower = bounds.get(i);
+            long upper = bounds.get(i + 1);
+
+            if (count == 1) {
+                clauses = clauses.append(WhereClause.alwaysTrue());
+            } else if (i == 0) {
+                clauses = clauses.append(WhereClause.lt(column, upper).or(isNull));
+            } else if (i == count - 1) {
+                clauses = clauses.append(WhereClause.gteq(column, lower));
+            } else {
+                clauses = clauses.append(WhereClause.gteq(column, lower).and(WhereClause.lt(column, upper)));
+            }
+        }
+        return clauses;
+    }
+
+    // Splits [min, max] into at most `partitions` ranges, returned as count + 1 bounds where the last one is max itself.
+    // The span may not fit in a long (e.g Long.MIN_VALUE..Long.MAX_VALUE), hence BigInteger
+    static List<Long> rangeBounds(long min, long max, int partitions) {
+        BigInteger lowest = BigInteger.valueOf(min);
+        BigInteger span = BigInteger.valueOf(max).subtract(lowest).add(BigInteger.ONE);
+        int count = span.min(BigInteger.valueOf(Math.max(1, partitions))).intValue();
+
+        BigInteger divisor = BigInteger.valueOf(count);
+        return List.range(0, count + 1)
+                .map((i) -> i == count ? max : lowest.add(span.multiply(BigInteger.valueOf(i)).divide(divisor)).longValue());
+    }
+
+    private List<WhereClause> hashPartitions() {
+        String bucket = SqlUtils.db == SqlUtils.DbSupport.MSSQL ?
+                String.format("ABS(%s %% %d)", column, partitions) :
+                String.format("ABS(MOD(%s, %d))", column, partitions);
+
+        return List.range(0, partitions)
+                .map((i) -> {
+                    WhereClause clause = WhereClause.equals(bucket, i);
+                    return i == 0 ? clause.or(WhereClause.isNull(column)) : clause;
+                });
+    }
+}
@@ -0,0 +1,148 @@
+package no.utgdev.jdbcdsl;
+
+import lombok.Value;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Writes a batch over several connections, each partition in its own transaction.
+// Rows with the same key always end up in the same partition, and each partition is written in key-order,
+// so that concurrent partitions never wait for each others row-locks and lock in a stable order.
+public class PartitionedWrite<T> {
+    private final Jdbi jdbi;
+    private final BiFunction<Handle, List<T>, BatchResult> write;
+    private Function<? super T, ?> key;
+    private Comparator<T> order;
+    private int partitions;
+    private Executor executor;
+
+    PartitionedWrite(Jdbi jdbi, BiFunction<Handle, List<T>, BatchResult> write) {
+        this.jdbi = jdbi;
+        this.write = write;
+    }
+
+    public <K extends Comparable<? super K>> PartitionedWrite<T> byKey(Function<? super T, K> key, int partitions) {
+        if (partitions < 1) {
+            throw new SqlUtilsException("'partitions' must be at least 1");
+        }
+        this.key = key;
+        this.order = Comparator.comparing(key, Comparator.nullsFirst(Comparator.naturalOrder()));
+        this.partitions = partitions;
+        return this;
+    }
+
+    // Defaults to a thread per partition
+    public PartitionedWrite<T> executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    // Partitions which succeed are committed even if others fail, the failures are reported by PartitionedWriteException
+    public List<Result> execute(Iterable<T> data) {
+        if (key == null) {
+            throw new SqlUtilsException("Did you remember to specify byKey?");
+        }
+
+        List<List<T>> buckets = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (T row : data) {
+            buckets.get(Math.floorMod(Objects.hashCode(key.apply(row)), partitions)).add(row);
+        }
+
+        ExecutorService ownExecutor = executor == null ? Executors.newFixedThreadPool(partitions) : null;
+        Executor writeExecutor = executor == null ? ownExecutor : executor;
+        try {
+            List<CompletableFuture<Result>> writes = new ArrayList<>();
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                if (!buckets.get(i).isEmpty()) {
+                    writes.add(CompletableFuture.supplyAsync(() -> write(partition, buckets.get(partition)), writeExecutor));
+                }
+            }
+
+            List<Result> results = writes.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList());
+
+            if (results.stream().anyMatch(Result::isFailure)) {
+                throw new PartitionedWriteException(results);
+            }
+            return results;
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    private Result write(int partition, List<T> rows) {
+        rows.sort(order);
+        try {
+            BatchResult result = SqlUtils.inTransaction(jdbi, (handle) -> write.apply(handle, rows));
+            return new Result(partition, rows.size(), result, null);
+        } catch (RuntimeException e) {
+            return new Result(partition, rows.size(), null, e);
+        }
+    }
+
+    @Value
+    public static class Result {
+        int partition;
+        int rows;
+        BatchResult result;
+        Throwable error;
+
+        public boolean isFailure() {
+            return error != null;
+        }
+    }
+
+    public static class PartitionedWriteException extends SqlUtilsException {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Result> results;
+
+        PartitionedWriteException(List<Result> results) {
+            super(describe(results), firstError(results));
+            this.results = results;
+        }
+
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public List<Result> getFailures() {
+            return results.stream()
+                    .filter(Result::isFailure)
+                    .collect(Collectors.toList());
+        }
+
+        private static String describe(List<Result> results) {
+            return results.stream()
+                    .filter(Result::isFailure)
+                    .map((result) -> "partition " + result.partition + " (" + result.rows + " rows): " + result.error.getMessage())
+                    .collect(Collectors.joining(", ", "Partitioned write failed for ", ""));
+        }
+
+        private static Throwable firstError(List<Result> results) {
+            return results.stream()
+                    .filter(Result::isFailure)
+                    .map(Result::getError)
+                    .findFirst()
+                    .orElse(null);
+        }
+    }
+}
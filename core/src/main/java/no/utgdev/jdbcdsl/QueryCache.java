@@ -0,0 +1,166 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple3;
+import lombok.Value;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import static java.util.stream.Collectors.toList;
+
+public class QueryCache {
+    private static final CopyOnWriteArrayList<WeakReference<QueryCache>> caches = new CopyOnWriteArrayList<>();
+
+    private final int maxEntries;
+    private final Duration defaultTtl;
+    private final Map<String, Duration> tableTtls;
+    private final LinkedHashMap<Object, Entry> entries;
+    // Bumped on every invalidation, so that loads started before it are not cached
+    private final Map<String, Long> generations = new HashMap<>();
+    private long generation;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    LongSupplier clock = System::nanoTime;
+
+    public QueryCache(int maxEntries, Duration defaultTtl) {
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.tableTtls = new HashMap<>();
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                boolean evict = size() > QueryCache.this.maxEntries;
+                if (evict) {
+                    evictions.incrementAndGet();
+                }
+                return evict;
+            }
+        };
+        caches.add(new WeakReference<>(this));
+    }
+
+    public synchronized QueryCache ttl(String tableName, Duration ttl) {
+        this.tableTtls.put(normalize(tableName), ttl);
+        return this;
+    }
+
+    public synchronized void invalidate(String tableName) {
+        String table = normalize(tableName);
+        generations.merge(table, 1L, Long::sum);
+        entries.values().removeIf((entry) -> entry.tables.contains(table));
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public Stats getStats() {
+        synchronized (this) {
+            return Stats.of(hits.get(), misses.get(), evictions.get(), entries.size());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> List<T> get(String sql, Object[] args, boolean firstOnly, Collection<String> tableNames, Supplier<List<T>> loader) {
+        Tuple3<String, List<Object>, Boolean> key = Tuple.of(sql, Arrays.asList(args.clone()), firstOnly);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expires - clock.getAsLong() > 0) {
+                hits.incrementAndGet();
+                return (List<T>) entry.rows;
+            } else if (entry != null) {
+                entries.remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        List<String> tables = tableNames.stream().map(QueryCache::normalize).collect(toList());
+        long generation = generationOf(tables);
+        List<T> rows = Collections.unmodifiableList(loader.get());
+
+        synchronized (this) {
+            // The rows may have been read before a write to one of the tables was committed
+            if (generationOf(tables) == generation) {
+                entries.put(key, new Entry(rows, tables, clock.getAsLong() + ttlFor(tables).toNanos()));
+            }
+        }
+        return rows;
+    }
+
+    // Generations only grow, so the sum changes whenever one of the tables, or the whole cache, is invalidated
+    private synchronized long generationOf(List<String> tables) {
+        long sum = generation;
+        for (String table : tables) {
+            sum += generations.getOrDefault(table, 0L);
+        }
+        return sum;
+    }
+
+    // Called when a write through the dsl has been committed
+    static void invalidateEverywhere(String tableName) {
+        Iterator<WeakReference<QueryCache>> iterator = caches.iterator();
+        while (iterator.hasNext()) {
+            WeakReference<QueryCache> reference = iterator.next();
+            QueryCache cache = reference.get();
+            if (cache == null) {
+                caches.remove(reference);
+            } else {
+                cache.invalidate(tableName);
+            }
+        }
+    }
+
+    private Duration ttlFor(List<String> tables) {
+        Duration ttl = defaultTtl;
+        for (String table : tables) {
+            Duration tableTtl = tableTtls.get(table);
+            if (tableTtl != null && tableTtl.compareTo(ttl) < 0) {
+                ttl = tableTtl;
+            }
+        }
+        return ttl;
+    }
+
+    private static String normalize(String tableName) {
+        return tableName.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static class Entry {
+        final List<?> rows;
+        final List<String> tables;
+        final long expires;
+
+        Entry(List<?> rows, List<String> tables, long expires) {
+            this.rows = rows;
+            this.tables = tables;
+            this.expires = expires;
+        }
+    }
+
+    @Value(staticConstructor = "of")
+    public static class Stats {
+        long hits;
+        long misses;
+        long evictions;
+        int size;
+    }
+}
@@ -0,0 +1,145 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.result.ResultIterator;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Mirrors java.util.concurrent.Flow (not available on java 8), so adapting to Flow or reactive-streams is a one-liner
+public final class ResultPublisher<T> {
+    public interface Subscriber<T> {
+        void onSubscribe(Subscription subscription);
+
+        void onNext(T item);
+
+        void onError(Throwable throwable);
+
+        void onComplete();
+    }
+
+    public interface Subscription {
+        void request(long n);
+
+        void cancel();
+    }
+
+    private final Jdbi jdbi;
+    private final Executor executor;
+    private final SelectTemplate<T> template;
+
+    ResultPublisher(Jdbi jdbi, Executor executor, SelectTemplate<T> template) {
+        this.jdbi = jdbi;
+        this.executor = executor;
+        this.template = template;
+    }
+
+    // Every subscriber gets its own handle and cursor, rows are only read from the database as they are requested
+    public void subscribe(Subscriber<? super T> subscriber) {
+        RowSubscription subscription = new RowSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    private class RowSubscription implements Subscription, Runnable {
+        private final Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Only touched from within run(), which is serialized by wip
+        private Handle handle;
+        private ResultIterator<T> rows;
+        private boolean done;
+
+        RowSubscription(Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Subscription.request must be positive, got " + n);
+            } else {
+                requested.getAndUpdate((current) -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            if (cancelled) {
+                finish();
+                return;
+            }
+            if (invalidRequest != null) {
+                finish();
+                subscriber.onError(invalidRequest);
+                return;
+            }
+
+            try {
+                if (rows == null) {
+                    handle = jdbi.open();
+                    rows = template.iterator(handle);
+                }
+
+                long demand = requested.get();
+                long emitted = 0;
+                while (emitted < demand && !cancelled) {
+                    if (!rows.hasNext()) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(rows.next());
+                    emitted++;
+                }
+
+                if (cancelled) {
+                    finish();
+                } else if (demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+            } catch (Throwable e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (rows != null) {
+                rows.close();
+            }
+            if (handle != null) {
+                handle.close();
+            }
+        }
+    }
+}
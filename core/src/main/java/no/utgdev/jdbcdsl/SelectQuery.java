@@ -0,0 +1,604 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.Tuple3;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.SneakyThrows;
+import no.utgdev.jdbcdsl.order.OrderByExpression;
+import no.utgdev.jdbcdsl.order.OrderOperator;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.statement.Query;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+
+public class SelectQuery<T> {
+    public interface ColumnFragment extends SqlFragment {
+        default AsClause as(String name) {
+            return AsClause.of(this, name);
+        }
+    }
+
+    private static final StatementCache statementCache = new StatementCache(1024);
+    private static final ThreadLocal<ArgSink> argBuffer = ThreadLocal.withInitial(ArgSink::new);
+
+    private Handle db;
+    private String tableName;
+    private List<ColumnFragment> columnNames;
+    private Function<ResultSet, T> mapper;
+    private WhereClause where;
+    // Simplified where-clause including the keyset-condition, computed on first use and reset when either changes.
+    // Internal copies get the effective where-clause of the query they were made from
+    private Option<WhereClause> effectiveWhere;
+    private List<OrderByExpression> orderByExpressions;
+    private String groupBy;
+    private Integer offset;
+    private Integer rowCount;
+    private Tuple3<String, String, String> leftJoinOn;
+    private Integer fetchSize;
+    private Object[] seekValues;
+    private QueryCache cache;
+    // Defaults to the limit of SqlUtils.db when executed
+    private Integer maxInSize;
+    private Jdbi chunkJdbi;
+    private Executor chunkExecutor;
+
+    SelectQuery(Handle db, String tableName, Function<ResultSet, T> mapper) {
+        this.db = db;
+        this.tableName = tableName;
+        this.columnNames = List.empty();
+        this.orderByExpressions = List.empty();
+        this.mapper = mapper;
+    }
+
+    public SelectQuery<T> leftJoinOn(String joinTableName, String leftOn, String rightOn) {
+        leftJoinOn = Tuple.of(joinTableName, leftOn, rightOn);
+        return this;
+    }
+
+    public SelectQuery<T> column(String columnName) {
+        this.columnNames = this.columnNames.append(SqlFragment.fromString(columnName));
+        return this;
+    }
+
+    public SelectQuery<T> column(ColumnFragment caseClause) {
+        this.columnNames = this.columnNames.append(caseClause);
+        return this;
+    }
+
+    public SelectQuery<T> where(WhereClause where) {
+        this.where = where;
+        this.effectiveWhere = null;
+        return this;
+    }
+
+    public SelectQuery<T> groupBy(String column) {
+        this.groupBy = column;
+        return this;
+    }
+
+    public SelectQuery<T> orderBy(final OrderByExpression orderByExpression) {
+        this.orderByExpressions = this.orderByExpressions.append(orderByExpression);
+        this.effectiveWhere = null;
+        return this;
+    }
+
+    public SelectQuery<T> limit(int offset, int rowCount) {
+        this.offset = offset;
+        this.rowCount = rowCount;
+        return this;
+    }
+
+    public SelectQuery<T> limit(int rowCount) {
+        return limit(0, rowCount);
+    }
+
+    // Keyset pagination; continue after the row with the given values for each of the orderBy-expressions
+    public SelectQuery<T> seekAfter(Object... lastValues) {
+        this.seekValues = lastValues;
+        this.effectiveWhere = null;
+        return this;
+    }
+
+    // Results are shared between callers, and returned as unmodifiable lists
+    public SelectQuery<T> cached(QueryCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    public SelectQuery<T> fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    // IN-lists with more elements are split, and executed as one query per chunk. Grouped queries are never split.
+    // Defaults to SqlUtils.db.maxInSize, i.e only Oracle splits unless set.
+    // Ordered chunks are merged in java, which is only done when ordering by numeric or temporal columns. Otherwise
+    // the query is executed again as one statement, since the database's collation cannot be reproduced in java
+    public SelectQuery<T> maxInSize(int maxInSize) {
+        if (maxInSize < 1) {
+            throw new SqlUtilsException("'maxInSize' must be at least 1");
+        }
+        this.maxInSize = maxInSize;
+        return this;
+    }
+
+    // Chunks are executed in parallel, each on its own handle, instead of one by one on this query's handle.
+    // Ignored when this query's handle is in a transaction, as the chunks would not be part of it
+    public SelectQuery<T> parallelChunks(Jdbi jdbi) {
+        return parallelChunks(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public SelectQuery<T> parallelChunks(Jdbi jdbi, Executor executor) {
+        this.chunkJdbi = jdbi;
+        this.chunkExecutor = executor;
+        return this;
+    }
+
+    @SneakyThrows
+    public Option<T> execute() {
+        WhereClause where = effectiveWhere();
+        if (isAlwaysFalse(where)) {
+            return Option.none();
+        }
+
+        java.util.List<WhereClause> chunks = whereChunks(where);
+        if (chunks.size() > 1) {
+            return Option.ofOptional(executeChunks(where, chunks).stream().findFirst());
+        }
+
+        Tuple3<String, Object[], RowMapper<T>> context = prepareExecution(where);
+
+        if (cache != null) {
+            java.util.List<T> rows = cache.get(context._1, context._2, true, getTableNames(), () ->
+                    createQuery(context).map(context._3).findFirst().map(Collections::singletonList).orElse(Collections.emptyList())
+            );
+            return rows.isEmpty() ? Option.none() : Option.of(rows.get(0));
+        }
+
+        return Option.ofOptional(createQuery(context).map(context._3).findFirst());
+    }
+
+    @SneakyThrows
+    public java.util.List<T> executeToList() {
+        WhereClause where = effectiveWhere();
+        if (isAlwaysFalse(where)) {
+            return Collections.emptyList();
+        }
+
+        java.util.List<WhereClause> chunks = whereChunks(where);
+        if (chunks.size() > 1) {
+            return executeChunks(where, chunks);
+        }
+
+        return executeUnsplit(where);
+    }
+
+    private java.util.List<T> executeUnsplit(WhereClause where) {
+        Tuple3<String, Object[], RowMapper<T>> context = prepareExecution(where);
+
+        if (cache != null) {
+            return cache.get(context._1, context._2, false, getTableNames(), () -> createQuery(context).map(context._3).list());
+        }
+
+        return createQuery(context).map(context._3).list();
+    }
+
+    // The stream keeps the underlying cursor open, and must be closed by the caller (e.g try-with-resources)
+    @SneakyThrows
+    public Stream<T> executeToStream() {
+        WhereClause where = effectiveWhere();
+        if (isAlwaysFalse(where)) {
+            return Stream.empty();
+        }
+
+        Tuple3<String, Object[], RowMapper<T>> context = prepareExecution(where);
+
+        return createQuery(context).map(context._3).stream();
+    }
+
+    public void forEach(Consumer<? super T> consumer) {
+        try (Stream<T> stream = executeToStream()) {
+            stream.forEach(consumer);
+        }
+    }
+
+    // Splits the effective where-clause, so the chunks include the keyset-condition as well
+    private java.util.List<WhereClause> whereChunks(WhereClause where) {
+        if (where == null || groupBy != null) {
+            return Collections.emptyList();
+        }
+        return where.splitIn(maxInSize != null ? maxInSize : SqlUtils.db.maxInSize);
+    }
+
+    // Every chunk fetches all rows up to the end of the requested page, before the merged result is paged.
+    // The orderBy-expressions are selected as extra columns, and read as the keys of the merge
+    private java.util.List<T> executeChunks(WhereClause where, java.util.List<WhereClause> chunks) {
+        ChunkedExecution.KeyedMapper<T> keyedMapper = new ChunkedExecution.KeyedMapper<>(orderByExpressions.size(), mapper);
+        List<ColumnFragment> keyColumns = orderByExpressions.zipWithIndex()
+                .<ColumnFragment>map((orderBy) -> AsClause.of(SqlFragment.fromString(orderBy._1.getColumnName()), "JDBCDSL_KEY_" + orderBy._2));
+        java.util.List<java.util.List<Tuple2<Object[], T>>> results = runChunks(chunks, (chunk) -> {
+            SelectQuery<Tuple2<Object[], T>> query = chunk.withMapper(keyedMapper);
+            query.columnNames = query.columnNames.appendAll(keyColumns);
+            if (offset != null) {
+                query.offset = 0;
+                query.rowCount = offset + rowCount;
+            }
+            return query.executeToList();
+        });
+
+        if (!orderByExpressions.isEmpty() && !ChunkedExecution.isMergeable(results)) {
+            return executeUnsplit(where);
+        }
+
+        java.util.List<T> rows = orderByExpressions.isEmpty() ?
+                results.stream().flatMap(java.util.List::stream).map(Tuple2::_2).collect(Collectors.toList()) :
+                ChunkedExecution.merge(results, orderByExpressions);
+
+        if (rowCount == null) {
+            return rows;
+        }
+        int from = Math.min(offset == null ? 0 : offset, rows.size());
+        int to = Math.min(from + rowCount, rows.size());
+        return new java.util.ArrayList<>(rows.subList(from, to));
+    }
+
+    private <R> java.util.List<R> runChunks(java.util.List<WhereClause> chunks, Function<SelectQuery<T>, R> work) {
+        return ChunkedExecution.run(db, chunkJdbi, chunkExecutor, chunks, (handle, chunk) -> {
+            SelectQuery<T> query = copyWith(handle, mapper, chunk);
+            query.seekValues = null;
+            query.effectiveWhere = Option.of(chunk);
+            query.maxInSize = maxInSize;
+            return work.apply(query);
+        });
+    }
+
+    private <R> SelectQuery<R> withMapper(Function<ResultSet, R> mapper) {
+        SelectQuery<R> query = copyWith(db, mapper, where);
+        query.maxInSize = maxInSize;
+        return query;
+    }
+
+    private java.util.List<String> getTableNames() {
+        return leftJoinOn == null ? Collections.singletonList(tableName) : Arrays.asList(tableName, leftJoinOn._1);
+    }
+
+    private Query createQuery(Tuple3<String, Object[], RowMapper<T>> context) {
+        Query query = Helpers.bindAll(Helpers.requireHandle(db).createQuery(context._1), context._2);
+        if (fetchSize != null) {
+            query.setFetchSize(fetchSize);
+        }
+        return query;
+    }
+
+    public CompletableFuture<Option<T>> executeAsync(Jdbi jdbi) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public CompletableFuture<Option<T>> executeAsync(Jdbi jdbi, Executor executor) {
+        SelectQuery<T> query = snapshot(null);
+        return AsyncExecution.run(jdbi, executor, (handle) -> query.snapshot(handle).execute());
+    }
+
+    public CompletableFuture<java.util.List<T>> executeToListAsync(Jdbi jdbi) {
+        return executeToListAsync(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public CompletableFuture<java.util.List<T>> executeToListAsync(Jdbi jdbi, Executor executor) {
+        SelectQuery<T> query = snapshot(null);
+        return AsyncExecution.run(jdbi, executor, (handle) -> query.snapshot(handle).executeToList());
+    }
+
+    // Counts all matching rows, ignoring ordering and paging
+    @SneakyThrows
+    public long executeCount() {
+        WhereClause where = effectiveWhere();
+        if (isAlwaysFalse(where)) {
+            return 0;
+        }
+
+        java.util.List<WhereClause> chunks = whereChunks(where);
+        if (chunks.size() > 1) {
+            return runChunks(chunks, SelectQuery::executeCount).stream().mapToLong(Long::longValue).sum();
+        }
+
+        SQLFunction<ResultSet, Long> countMapper = (rs) -> rs.getLong(1);
+
+        if (groupBy == null) {
+            return derive(db, countMapper, where)
+                    .column("COUNT(*)")
+                    .execute()
+                    .get();
+        }
+
+        SelectQuery<Long> groups = derive(db, countMapper, where).column(groupBy).groupBy(groupBy);
+        Tuple3<String, Object[], RowMapper<Long>> context = groups.prepareExecution(where);
+        return Helpers.bindAll(Helpers.requireHandle(db).createQuery("SELECT COUNT(*) FROM (" + context._1 + ") grouped"), context._2)
+                .map(context._3)
+                .findOnly();
+    }
+
+    @SneakyThrows
+    public boolean executeExists() {
+        WhereClause where = effectiveWhere();
+        if (isAlwaysFalse(where)) {
+            return false;
+        }
+
+        java.util.List<WhereClause> chunks = whereChunks(where);
+        if (chunks.size() > 1) {
+            return runChunks(chunks, SelectQuery::executeExists).contains(true);
+        }
+
+        SQLFunction<ResultSet, Boolean> existsMapper = (rs) -> true;
+
+        SelectQuery<Boolean> probe = derive(db, existsMapper, where).column("1");
+        probe.rowCount = 1;
+        return probe.execute().isDefined();
+    }
+
+    public ResultPublisher<T> publisher(Jdbi jdbi) {
+        return publisher(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public ResultPublisher<T> publisher(Jdbi jdbi, Executor executor) {
+        return new ResultPublisher<>(jdbi, executor, compile());
+    }
+
+    public PartitionedScan<T> partitionedScan(Jdbi jdbi) {
+        return new PartitionedScan<>(jdbi, this);
+    }
+
+    public SelectTemplate<T> compile() {
+        Tuple3<String, Object[], RowMapper<T>> context = prepareExecution(effectiveWhere());
+
+        return new SelectTemplate<>(context._1, context._2, mapper, fetchSize);
+    }
+
+    boolean isPaged() {
+        return rowCount != null;
+    }
+
+    // Same query, but running on another handle and with an additional where-clause
+    SelectQuery<T> copy(Handle db, WhereClause additionalWhere) {
+        SelectQuery<T> copy = copyWith(db, this.mapper, this.where == null ? additionalWhere : this.where.and(additionalWhere));
+        copy.maxInSize = this.maxInSize;
+        return copy;
+    }
+
+    // Same table, join and where-clause, but with no columns, ordering or paging.
+    // Derived queries are never split into chunks, as their results cannot be merged
+    <R> SelectQuery<R> derive(Handle db, Function<ResultSet, R> mapper) {
+        return derive(db, mapper, effectiveWhere());
+    }
+
+    private <R> SelectQuery<R> derive(Handle db, Function<ResultSet, R> mapper, WhereClause effectiveWhere) {
+        SelectQuery<R> derived = new SelectQuery<>(db, this.tableName, mapper);
+        derived.leftJoinOn = this.leftJoinOn;
+        derived.where = effectiveWhere;
+        derived.effectiveWhere = Option.of(effectiveWhere);
+        derived.fetchSize = this.fetchSize;
+        derived.maxInSize = Integer.MAX_VALUE;
+        return derived;
+    }
+
+    // The whole query on another handle, including caching and chunking, so it executes the same way there
+    private SelectQuery<T> snapshot(Handle db) {
+        SelectQuery<T> copy = copyWith(db, this.mapper, this.where);
+        copy.effectiveWhere = this.effectiveWhere;
+        copy.cache = this.cache;
+        copy.maxInSize = this.maxInSize;
+        copy.chunkJdbi = this.chunkJdbi;
+        copy.chunkExecutor = this.chunkExecutor;
+        return copy;
+    }
+
+    private <R> SelectQuery<R> copyWith(Handle db, Function<ResultSet, R> mapper, WhereClause where) {
+        SelectQuery<R> copy = new SelectQuery<>(db, this.tableName, mapper);
+        copy.leftJoinOn = this.leftJoinOn;
+        copy.where = where;
+        copy.columnNames = this.columnNames;
+        copy.orderByExpressions = this.orderByExpressions;
+        copy.groupBy = this.groupBy;
+        copy.offset = this.offset;
+        copy.rowCount = this.rowCount;
+        copy.seekValues = this.seekValues;
+        copy.fetchSize = this.fetchSize;
+        return copy;
+    }
+
+    // The effective where-clause is computed once per execution by the caller, as simplifying it is a full pass
+    private Tuple3<String, Object[], RowMapper<T>> prepareExecution(WhereClause where) {
+        if (mapper == null) {
+            throw new SqlUtilsException("I need a mapper function in order to return the right data type.");
+        }
+
+        // On a cache hit only the args are collected, otherwise sql and args are rendered in the same pass
+        ArgSink args = argBuffer.get();
+        args.clear();
+        Object shape = getShape(where);
+        String sql = statementCache.get(shape);
+        if (sql == null) {
+            validate();
+            sql = renderSelectStatement(new StringBuilder(), args, where).toString();
+            statementCache.put(shape, sql);
+        } else {
+            renderSelectStatement(null, args, where);
+        }
+
+        return Tuple.of(
+                sql,
+                args.toArray(),
+                Helpers.rowMapper(this.mapper)
+        );
+    }
+
+    private Object getShape(WhereClause where) {
+        return Tuple.of(
+                tableName,
+                columnNames.map(SqlFragment::getShape),
+                leftJoinOn,
+                Option.of(where).map(WhereClause::getShape).getOrNull(),
+                groupBy,
+                orderByExpressions,
+                Tuple.of(offset, rowCount),
+                SqlUtils.db
+        );
+    }
+
+    private void validate() {
+        if (tableName == null || columnNames.isEmpty()) {
+            throw new SqlUtilsException(
+                    "I need more data to create a sql-statement. " +
+                            "Did you remember to specify table and columns?"
+            );
+        }
+
+        boolean hasSelectOnGroupBy = columnNames
+                .find((fragment) -> fragment instanceof SqlFragment.StringFragment && fragment.toSql().equals(groupBy) ||
+                                fragment instanceof AsClause && ((AsClause)fragment).getName().equals(groupBy)
+                        )
+                .isDefined();
+
+        if (groupBy != null && !hasSelectOnGroupBy) {
+            throw new SqlUtilsException("You have to select the column which you are grouping by.");
+        }
+
+        if (mapper == null) {
+            throw new SqlUtilsException("I need a mapper function in order to return the right data type.");
+        }
+    }
+
+    // Simplified, and without any where-clause at all if it is always true
+    private WhereClause effectiveWhere() {
+        if (effectiveWhere != null) {
+            return effectiveWhere.getOrNull();
+        }
+
+        WhereClause where = this.where;
+        if (seekValues != null) {
+            WhereClause seek = createSeekClause();
+            where = where == null ? seek : where.and(seek);
+        }
+
+        WhereClause simplified = where == null ? null : where.simplify();
+        effectiveWhere = Option.of(WhereClause.alwaysTrue().equals(simplified) ? null : simplified);
+        return effectiveWhere.getOrNull();
+    }
+
+    // Queries which cannot match any rows are never sent to the database
+    private static boolean isAlwaysFalse(WhereClause effectiveWhere) {
+        return WhereClause.alwaysFalse().equals(effectiveWhere);
+    }
+
+    // Expands to (a > ?) OR ((a = ?) AND (b > ?)) etc, respecting the direction of each orderBy-expression
+    private WhereClause createSeekClause() {
+        if (orderByExpressions.isEmpty() || orderByExpressions.size() != seekValues.length) {
+            throw new SqlUtilsException(
+                    "Keyset pagination needs exactly one value per orderBy-expression. " +
+                            "Got " + seekValues.length + " values for " + orderByExpressions.size() + " expressions."
+            );
+        }
+
+        WhereClause seek = null;
+        for (int i = seekValues.length - 1; i >= 0; i--) {
+            OrderByExpression orderBy = orderByExpressions.get(i);
+            Object value = seekValues[i];
+            if (value == null) {
+                throw new SqlUtilsException("Keyset pagination does not support null values, found null for " + orderBy.getColumnName());
+            }
+
+            WhereClause after = orderBy.getOperator() == OrderOperator.ASC ?
+                    WhereClause.gt(orderBy.getColumnName(), value) :
+                    WhereClause.lt(orderBy.getColumnName(), value);
+
+            seek = seek == null ? after : after.or(WhereClause.equals(orderBy.getColumnName(), value).and(seek));
+        }
+        return seek;
+    }
+
+    // Sql-builder may be null, in which case only the args are collected
+    private StringBuilder renderSelectStatement(StringBuilder sql, ArgSink args, WhereClause where) {
+        boolean fetchFirstOnly = this.offset == null && this.rowCount != null;
+        if (sql != null) {
+            sql.append("SELECT ");
+            if (fetchFirstOnly && SqlUtils.db == SqlUtils.DbSupport.MSSQL) {
+                sql.append("TOP ").append(rowCount).append(" ");
+            }
+        }
+
+        boolean first = true;
+        for (ColumnFragment column : columnNames) {
+            if (sql != null && !first) {
+                sql.append(", ");
+            }
+            column.renderTo(sql, args);
+            first = false;
+        }
+
+        if (sql != null) {
+            sql.append(" FROM ").append(tableName);
+
+            if (Objects.nonNull(leftJoinOn)) {
+                sql.append(" LEFT JOIN ").append(leftJoinOn._1)
+                        .append(" ON ").append(tableName).append('.').append(leftJoinOn._2)
+                        .append(" = ").append(leftJoinOn._1).append('.').append(leftJoinOn._3);
+            }
+        }
+
+        if (where != null) {
+            if (sql != null) {
+                sql.append(" WHERE ");
+            }
+            where.renderTo(sql, args);
+        }
+
+        if (sql == null) {
+            return null;
+        }
+
+        if (this.groupBy != null) {
+            sql.append(" GROUP BY ").append(this.groupBy);
+        }
+
+        if (orderByExpressions != null && !orderByExpressions.isEmpty()) {
+            sql.append(" ORDER BY ");
+            first = true;
+            for (OrderByExpression orderByExpression : orderByExpressions) {
+                if (!first) {
+                    sql.append(", ");
+                }
+                sql.append(orderByExpression.getColumnName()).append(' ').append(orderByExpression.getOperator().sql);
+                first = false;
+            }
+        }
+
+        if (this.offset != null) {
+            sql.append(" OFFSET ").append(offset).append(" ROWS FETCH NEXT ").append(rowCount).append(" ROWS ONLY");
+        } else if (fetchFirstOnly && SqlUtils.db != SqlUtils.DbSupport.MSSQL) {
+            sql.append(" OFFSET 0 ROWS FETCH NEXT ").append(rowCount).append(" ROWS ONLY");
+        }
+
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return renderSelectStatement(new StringBuilder(), null, effectiveWhere()).toString();
+    }
+
+}
@@ -0,0 +1,73 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.control.Option;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.mapper.RowMapper;
+import org.jdbi.v3.core.result.ResultIterator;
+import org.jdbi.v3.core.statement.Query;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public final class SelectTemplate<T> {
+    private final String sql;
+    private final Object[] args;
+    private final int[] slots;
+    private final RowMapper<T> rowMapper;
+    private final Integer fetchSize;
+
+    SelectTemplate(String sql, Object[] args, Function<ResultSet, T> mapper, Integer fetchSize) {
+        this.sql = sql;
+        this.args = args;
+        this.slots = Param.findSlots(args);
+        this.rowMapper = Helpers.rowMapper(mapper);
+        this.fetchSize = fetchSize;
+    }
+
+    public Option<T> execute(Handle db, Object... values) {
+        return first(db, Param.resolve(args, slots, values));
+    }
+
+    public Option<T> execute(Handle db, Map<String, ?> values) {
+        return first(db, Param.resolve(args, slots, values));
+    }
+
+    public List<T> executeToList(Handle db, Object... values) {
+        return list(db, Param.resolve(args, slots, values));
+    }
+
+    public List<T> executeToList(Handle db, Map<String, ?> values) {
+        return list(db, Param.resolve(args, slots, values));
+    }
+
+    ResultIterator<T> iterator(Handle db, Object... values) {
+        return createQuery(db, Param.resolve(args, slots, values)).map(rowMapper).iterator();
+    }
+
+    private Option<T> first(Handle db, Object[] resolvedArgs) {
+        return Option.ofOptional(createQuery(db, resolvedArgs).map(rowMapper).findFirst());
+    }
+
+    private List<T> list(Handle db, Object[] resolvedArgs) {
+        return createQuery(db, resolvedArgs).map(rowMapper).list();
+    }
+
+    private Query createQuery(Handle db, Object[] resolvedArgs) {
+        Query query = Helpers.bindAll(db.createQuery(sql), resolvedArgs);
+        if (fetchSize != null) {
+            query.setFetchSize(fetchSize);
+        }
+        return query;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
@@ -0,0 +1,74 @@
+package no.utgdev.jdbcdsl;
+
+// Fragments implement toSql and getArgs, or implement Rendered and write sql and args in one pass
+public interface SqlFragment {
+    String toSql();
+
+    Object[] getArgs();
+
+    // Appends the sql to the builder and the args to the sink. Either may be null, and is then skipped
+    default void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(toSql());
+        }
+        if (args != null) {
+            for (Object arg : getArgs()) {
+                args.add(arg);
+            }
+        }
+    }
+
+    // Fragments with equal shapes must render the same sql, regardless of their args
+    default Object getShape() {
+        return toSql();
+    }
+
+    // toSql and getArgs are derived from renderTo
+    interface Rendered extends SqlFragment {
+        @Override
+        void renderTo(StringBuilder sql, ArgSink args);
+
+        @Override
+        default Object[] getArgs() {
+            ArgSink args = new ArgSink();
+            renderTo(null, args);
+            return args.toArray();
+        }
+
+        @Override
+        default String toSql() {
+            StringBuilder sql = new StringBuilder();
+            renderTo(sql, null);
+            return sql.toString();
+        }
+    }
+
+    class StringFragment implements Rendered, SelectQuery.ColumnFragment {
+        private final String str;
+
+        public StringFragment(String str) {
+            this.str = str;
+        }
+
+        @Override
+        public void renderTo(StringBuilder sql, ArgSink args) {
+            if (sql != null) {
+                sql.append(str);
+            }
+        }
+
+        @Override
+        public String toSql() {
+            return str;
+        }
+
+        @Override
+        public Object getShape() {
+            return str;
+        }
+    }
+
+    static StringFragment fromString(String str) {
+        return new StringFragment(str);
+    }
+}
@@ -6,6 +6,7 @@ import io.vavr.control.Option;
 import io.vavr.control.Try;
 import no.utgdev.jdbcdsl.mapping.QueryMapping;
 import no.utgdev.jdbcdsl.mapping.SqlRecord;
+import no.utgdev.jdbcdsl.where.InListPadding;
 import org.jdbi.v3.core.Handle;
 import org.jdbi.v3.core.HandleCallback;
 import org.jdbi.v3.core.HandleConsumer;
@@ -14,17 +15,46 @@ import org.jdbi.v3.core.transaction.TransactionIsolationLevel;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 public class SqlUtils {
     public enum DbSupport {
-        UNKNOWN, MSSQL, ORACLE
+        // SQL Server allows 2100 parameters per request, but the driver may add its own, e.g for sp_prepexec
+        UNKNOWN(32767, Integer.MAX_VALUE), MSSQL(2098, Integer.MAX_VALUE), ORACLE(65535, 1000);
+
+        // Max number of bind-parameters in one statement
+        public final int maxBindParameters;
+        // Max number of elements in one IN-list, only Oracle limits it. Used as default maxInSize of queries
+        public final int maxInSize;
+
+        DbSupport(int maxBindParameters, int maxInSize) {
+            this.maxBindParameters = maxBindParameters;
+            this.maxInSize = maxInSize;
+        }
     }
 
     public static DbSupport db = DbSupport.UNKNOWN;
+    public static InListPadding inListPadding = InListPadding.none();
+    public static Executor asyncExecutor = Executors.newCachedThreadPool((runnable) -> {
+        Thread thread = new Thread(runnable, "jdbcdsl-async");
+        thread.setDaemon(true);
+        return thread;
+    });
     private static final ThreadLocal<Boolean> runInTransaction = ThreadLocal.withInitial(() -> false);
     private static final ThreadLocal<Throwable> markedForRollback = ThreadLocal.withInitial(() -> null);
     private static final ThreadLocal<Handle> transactionHandle = ThreadLocal.withInitial(() -> null);
     private static final ThreadLocal<TransactionIsolationLevel> transactionLevel = ThreadLocal.withInitial(() -> null);
+    private static final ThreadLocal<List<Runnable>> afterCompletion = ThreadLocal.withInitial(ArrayList::new);
+    private static final Map<Handle, Set<String>> changedInTransaction = Collections.synchronizedMap(new WeakHashMap<>());
 
     public static SqlQuery run(Handle db, String sql) {
         return new SqlQuery(db, sql);
@@ -50,6 +80,27 @@ public class SqlUtils {
         return new DeleteQuery(db, tableName);
     }
 
+    // Handle-less variants, intended to be compiled into reusable templates
+    public static UpdateQuery update(String tableName) {
+        return update(null, tableName);
+    }
+
+    public static InsertQuery insert(String tableName) {
+        return insert(null, tableName);
+    }
+
+    public static <T> SelectQuery<T> select(String tableName, SQLFunction<ResultSet, T> mapper) {
+        return select(null, tableName, mapper);
+    }
+
+    public static <T extends SqlRecord> SelectQuery<T> select(String tableName, Class<T> recordClass) {
+        return select(null, tableName, recordClass);
+    }
+
+    public static DeleteQuery delete(String tableName) {
+        return delete(null, tableName);
+    }
+
     public static <T extends SqlRecord> UpdateQuery update(Handle db, String tableName, T record) {
         QueryMapping<T> querymapping = QueryMapping.of((Class<T>) record.getClass());
 
@@ -74,7 +125,7 @@ public class SqlUtils {
     public static <T extends SqlRecord> SelectQuery<T> select(Handle db, String tableName, Class<T> recordClass) {
         QueryMapping<T> querymapping = QueryMapping.of(recordClass);
 
-        SelectQuery<T> selectQuery = new SelectQuery<>(db, tableName, querymapping::createMapper);
+        SelectQuery<T> selectQuery = new SelectQuery<>(db, tableName, querymapping);
         return querymapping.applyColumn(selectQuery);
     }
 
@@ -125,6 +176,10 @@ public class SqlUtils {
                     transactionHandle.remove();
                     transactionLevel.remove();
                     markedForRollback.remove();
+
+                    List<Runnable> callbacks = afterCompletion.get();
+                    afterCompletion.remove();
+                    callbacks.forEach(Runnable::run);
                 }
 
                 runInTransaction.set(isNestedTransaction);
@@ -159,6 +214,51 @@ public class SqlUtils {
         transactional(null, runnable);
     }
 
+    // Runs on its own thread, and thus in its own transaction
+    public static <R> CompletableFuture<R> transactionalAsync(Executor executor, TransactionIsolationLevel level, CheckedFunction0<R> supplier) {
+        return CompletableFuture.supplyAsync(() -> transactional(level, supplier), executor);
+    }
+
+    public static <R> CompletableFuture<R> transactionalAsync(TransactionIsolationLevel level, CheckedFunction0<R> supplier) {
+        return transactionalAsync(asyncExecutor, level, supplier);
+    }
+
+    public static <R> CompletableFuture<R> transactionalAsync(CheckedFunction0<R> supplier) {
+        return transactionalAsync(asyncExecutor, null, supplier);
+    }
+
+    // Reads within the transaction may have cached uncommitted data, so we invalidate on rollback as well.
+    // In transactions not started by SqlUtils we invalidate right away, and again when transactionEnded is called
+    static void tableChanged(Handle handle, String tableName) {
+        if (runInTransaction.get()) {
+            afterCompletion.get().add(() -> QueryCache.invalidateEverywhere(tableName));
+            return;
+        }
+
+        QueryCache.invalidateEverywhere(tableName);
+        if (handle != null && handle.isInTransaction()) {
+            changedInTransaction.computeIfAbsent(handle, (key) -> new LinkedHashSet<>()).add(tableName);
+        }
+    }
+
+    // Called after the transaction of the handle is committed or rolled back, e.g by CacheInvalidatingTransactionHandler
+    static void transactionEnded(Handle handle) {
+        Set<String> tables = changedInTransaction.remove(handle);
+        if (tables != null) {
+            tables.forEach(QueryCache::invalidateEverywhere);
+        }
+    }
+
+    static <R> R inTransaction(Jdbi jdbi, HandleCallback<R, RuntimeException> callback) {
+        return jdbi.withHandle((handle) -> {
+            try {
+                return handle.inTransaction(callback);
+            } finally {
+                transactionEnded(handle);
+            }
+        });
+    }
+
     private static Handle getTransactionHandle(Jdbi jdbi) {
         Handle handle = transactionHandle.get();
         if (handle == null) {
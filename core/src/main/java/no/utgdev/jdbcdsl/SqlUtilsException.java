@@ -8,4 +8,8 @@ public class SqlUtilsException extends RuntimeException {
     public SqlUtilsException(Throwable cause) {
         super(cause);
     }
+
+    public SqlUtilsException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
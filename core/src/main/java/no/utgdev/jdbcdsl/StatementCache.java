@@ -0,0 +1,40 @@
+package no.utgdev.jdbcdsl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+class StatementCache {
+    private final int maxSize;
+    private final LinkedHashMap<Object, String> statements;
+
+    StatementCache(int maxSize) {
+        this.maxSize = maxSize;
+        // Shapes containing paging-values etc may grow without bounds, so the least recently used is evicted when full.
+        // Access-order means that get also changes the map, hence every access is synchronized
+        this.statements = new LinkedHashMap<Object, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, String> eldest) {
+                return size() > StatementCache.this.maxSize;
+            }
+        };
+    }
+
+    // Returns null if the shape has not been rendered yet
+    synchronized String get(Object shape) {
+        return statements.get(shape);
+    }
+
+    synchronized void put(Object shape, String sql) {
+        statements.put(shape, sql);
+    }
+
+    synchronized int size() {
+        return statements.size();
+    }
+
+    synchronized void clear() {
+        statements.clear();
+    }
+}
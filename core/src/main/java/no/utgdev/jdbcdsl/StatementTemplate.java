@@ -0,0 +1,42 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Handle;
+
+import java.util.Map;
+
+public final class StatementTemplate {
+    private final String tableName;
+    private final String sql;
+    private final Object[] args;
+    private final int[] slots;
+
+    StatementTemplate(String tableName, String sql, Object[] args) {
+        this.tableName = tableName;
+        this.sql = sql;
+        this.args = args;
+        this.slots = Param.findSlots(args);
+    }
+
+    public int execute(Handle db, Object... values) {
+        return run(db, Param.resolve(args, slots, values));
+    }
+
+    public int execute(Handle db, Map<String, ?> values) {
+        return run(db, Param.resolve(args, slots, values));
+    }
+
+    private int run(Handle db, Object[] resolvedArgs) {
+        int result = Helpers.bindAll(db.createUpdate(sql), resolvedArgs).execute();
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    @Override
+    public String toString() {
+        return sql;
+    }
+}
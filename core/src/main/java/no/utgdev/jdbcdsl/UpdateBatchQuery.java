@@ -0,0 +1,186 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import no.utgdev.jdbcdsl.value.FunctionValue;
+import no.utgdev.jdbcdsl.value.Value;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Batch;
+import org.jdbi.v3.core.statement.PreparedBatch;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public class UpdateBatchQuery<T> {
+    private final Handle db;
+    private final String tableName;
+    private final Map<String, Value> setParams;
+    private Function<T, WhereClause> whereClause;
+    private int chunkSize = BatchExecution.DEFAULT_CHUNK_SIZE;
+    private int commitEvery;
+    private int pipelineDepth;
+
+    public UpdateBatchQuery(Handle db, String tableName) {
+        this.db = db;
+        this.tableName = tableName;
+        this.setParams = new LinkedHashMap<>();
+    }
+
+    private UpdateBatchQuery(Handle db, UpdateBatchQuery<T> query) {
+        this.db = db;
+        this.tableName = query.tableName;
+        this.setParams = new LinkedHashMap<>(query.setParams);
+        this.whereClause = query.whereClause;
+        this.chunkSize = query.chunkSize;
+        this.commitEvery = query.commitEvery;
+        this.pipelineDepth = query.pipelineDepth;
+    }
+
+    public UpdateBatchQuery<T> add(String param, Function<T, Object> paramValue) {
+        return this.add(param, new FunctionValue<>(paramValue));
+    }
+
+    public UpdateBatchQuery<T> add(String param, DbConstants value) {
+        return this.add(param, Value.of(value));
+    }
+
+    UpdateBatchQuery<T> add(String param, Value value) {
+        if (this.setParams.containsKey(param)) {
+            throw new IllegalArgumentException(String.format("Param[%s] was already set.", param));
+        }
+
+        this.setParams.put(param, value);
+        return this;
+    }
+
+    public UpdateBatchQuery<T> addWhereClause(Function<T, WhereClause> whereClause) {
+        this.whereClause = whereClause;
+        return this;
+    }
+
+    // Number of rows per batch when executing an Iterable, Stream or Iterator
+    public UpdateBatchQuery<T> chunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new SqlUtilsException("chunkSize must be positive, was " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    // Commit after every n chunks when executing an Iterable, Stream or Iterator, 0 disables it
+    // Not allowed when the handle is in a transaction, since the callers work would be committed along with it
+    public UpdateBatchQuery<T> commitEvery(int chunks) {
+        if (chunks < 0) {
+            throw new SqlUtilsException("commitEvery cannot be negative, was " + chunks);
+        }
+        this.commitEvery = chunks;
+        return this;
+    }
+
+    // Extracts the values of the next chunks on another thread while the current chunk executes,
+    // when executing an Iterable, Stream or Iterator. Depth is the number of chunks extracted ahead, 0 disables it.
+    public UpdateBatchQuery<T> pipelined(int depth) {
+        if (depth < 0) {
+            throw new SqlUtilsException("Pipeline depth cannot be negative, was " + depth);
+        }
+        this.pipelineDepth = depth;
+        return this;
+    }
+
+    public int[] execute(List<T> data) {
+        if (data.isEmpty()) {
+            return new int[0];
+        }
+        int[] result = executeChunk(data);
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public BatchResult execute(Iterable<T> data) {
+        return execute(data.iterator());
+    }
+
+    public BatchResult execute(Stream<T> data) {
+        return execute(data.iterator());
+    }
+
+    public BatchResult execute(Iterator<T> data) {
+        Handle handle = Helpers.requireHandle(db);
+        try {
+            return BatchExecution.run(handle, data, chunkSize, commitEvery, pipelineDepth, this::extract, this::executeRows);
+        } finally {
+            SqlUtils.tableChanged(db, tableName);
+        }
+    }
+
+    private int[] executeChunk(List<T> data) {
+        return executeRows(extract(data));
+    }
+
+    // The sql is rendered from the first row, as the where-clause is expected to have the same shape for all rows
+    private Tuple2<String, List<Object[]>> extract(List<T> data) {
+        return Tuple.of(createSql(data.get(0)), Helpers.extractBatchData(data, setParams, whereClause));
+    }
+
+    private int[] executeRows(Tuple2<String, List<Object[]>> chunk) {
+        String sql = chunk._1;
+        List<Object[]> rows = chunk._2;
+
+        boolean hasSetParamBindings = setParams
+                .values()
+                .stream()
+                .anyMatch((param) -> param instanceof FunctionValue);
+
+        if (!hasSetParamBindings && Objects.isNull(this.whereClause)) {
+            Batch batch = db.createBatch();
+            for (int i = 0; i < rows.size(); i++) {
+                batch.add(sql);
+            }
+            return batch.execute();
+        }
+
+        PreparedBatch batch = db.prepareBatch(sql);
+        Helpers.bindBatchData(batch, rows);
+        return batch.execute();
+    }
+
+    // Writes on several connections at once, see PartitionedWrite.
+    // Each partition is written in one transaction, so it cannot be combined with commitEvery
+    public PartitionedWrite<T> partitioned(Jdbi jdbi) {
+        if (commitEvery > 0) {
+            throw new SqlUtilsException("commitEvery cannot be combined with partitioned, each partition is written in one transaction");
+        }
+        UpdateBatchQuery<T> query = new UpdateBatchQuery<>(null, this);
+        return new PartitionedWrite<>(jdbi, (handle, rows) -> new UpdateBatchQuery<>(handle, query).execute(rows.iterator()));
+    }
+
+    public CompletableFuture<int[]> executeAsync(Jdbi jdbi, List<T> data) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor, data);
+    }
+
+    public CompletableFuture<int[]> executeAsync(Jdbi jdbi, Executor executor, List<T> data) {
+        UpdateBatchQuery<T> query = new UpdateBatchQuery<>(null, this);
+        return AsyncExecution.run(jdbi, executor, (handle) -> new UpdateBatchQuery<>(handle, query).execute(data));
+    }
+
+    String createSql(T t) {
+        StringBuilder sqlBuilder = new StringBuilder()
+                .append("update ").append(tableName)
+                .append(Helpers.createSetStatement(setParams));
+
+        if (Objects.nonNull(whereClause)) {
+            sqlBuilder.append(" where ").append(whereClause.apply(t).toSql());
+        }
+
+        return sqlBuilder.toString();
+    }
+}
@@ -2,12 +2,12 @@ package no.utgdev.jdbcdsl;
 
 import no.utgdev.jdbcdsl.value.Value;
 import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
 
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
-
-import static java.util.stream.Collectors.toList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 public class UpdateQuery implements DatachangeingQuery<UpdateQuery> {
     private final Handle db;
@@ -47,6 +47,26 @@ public class UpdateQuery implements DatachangeingQuery<UpdateQuery> {
     }
 
     public Integer execute() {
+        String sql = createUpdateStatement();
+        int result = Helpers.bindAll(Helpers.requireHandle(db).createUpdate(sql), createSqlArgumentArray()).execute();
+        SqlUtils.tableChanged(db, tableName);
+        return result;
+    }
+
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi) {
+        return executeAsync(jdbi, SqlUtils.asyncExecutor);
+    }
+
+    public CompletableFuture<Integer> executeAsync(Jdbi jdbi, Executor executor) {
+        StatementTemplate template = compile();
+        return AsyncExecution.run(jdbi, executor, template::execute);
+    }
+
+    public StatementTemplate compile() {
+        return new StatementTemplate(tableName, createUpdateStatement(), createSqlArgumentArray());
+    }
+
+    private String createUpdateStatement() {
         assert tableName != null;
         assert !setParams.isEmpty();
 
@@ -58,17 +78,12 @@ public class UpdateQuery implements DatachangeingQuery<UpdateQuery> {
             sqlBuilder.append(" where ").append(whereParam).append(" = ?");
         }
 
-        String sql = sqlBuilder.toString();
-        return db.execute(sql, createSqlArgumentArray());
+        return sqlBuilder.toString();
     }
 
     private Object[] createSqlArgumentArray() {
-        List<Object> args = setParams
-                .values()
-                .stream()
-                .filter(Value::hasPlaceholder)
-                .map(Value::getSql)
-                .collect(toList());
+        ArgSink args = new ArgSink();
+        Helpers.addValueArgs(setParams, args);
 
         if (whereValue != null) {
             args.add(whereValue);
@@ -0,0 +1,191 @@
+package no.utgdev.jdbcdsl;
+
+import org.jdbi.v3.core.Jdbi;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Collects rows from many threads and inserts them as one batch when flushSize rows are queued, or when the
+// oldest queued row has waited flushInterval. add blocks while capacity rows are queued.
+// The future of a row completes when the transaction containing it is committed.
+public class WriteBehindBuffer<T> implements AutoCloseable {
+    // Open buffers are flushed on shutdown by one shared hook, so short-lived buffers do not pile up hooks
+    static final Set<WriteBehindBuffer<?>> open = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> open.forEach(WriteBehindBuffer::close), "jdbcdsl-write-behind-shutdown"));
+    }
+
+    private final Jdbi jdbi;
+    private final InsertBatchQuery<T> query;
+    private final int flushSize;
+    private final long flushIntervalNanos;
+    private final BlockingQueue<Pending<T>> queue;
+    private final ReadWriteLock closing = new ReentrantReadWriteLock();
+    private final Thread flusher;
+    private final Pending<T> wakeUp = new Pending<>(null);
+    private volatile boolean closed;
+    private volatile Error failure;
+
+    WriteBehindBuffer(Jdbi jdbi, InsertBatchQuery<T> query, int flushSize, Duration flushInterval, int capacity) {
+        if (flushSize < 1 || capacity < 1) {
+            throw new SqlUtilsException("flushSize and capacity must be positive, was " + flushSize + " and " + capacity);
+        }
+        this.jdbi = jdbi;
+        this.query = query;
+        this.flushSize = flushSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(capacity);
+
+        this.flusher = new Thread(this::run, "jdbcdsl-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        open.add(this);
+    }
+
+    public CompletableFuture<Void> add(T row) {
+        Pending<T> pending = new Pending<>(row);
+        closing.readLock().lock();
+        try {
+            if (closed) {
+                throw failure != null ?
+                        new SqlUtilsException("WriteBehindBuffer stopped after an error", failure) :
+                        new SqlUtilsException("WriteBehindBuffer is closed");
+            }
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SqlUtilsException(e);
+        } finally {
+            closing.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    // Stops accepting rows, and waits until every queued row is written
+    @Override
+    public void close() {
+        closing.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        // Wakes the flusher if it is waiting for more rows, if the queue is full it is not waiting anyway
+        queue.offer(wakeUp);
+
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        open.remove(this);
+    }
+
+    private void run() {
+        try {
+            flush();
+        } catch (Error e) {
+            stop(e);
+            throw e;
+        }
+    }
+
+    private void flush() {
+        List<Pending<T>> batch = new ArrayList<>(flushSize);
+        while (true) {
+            try {
+                Pending<T> first = closed ? queue.poll() : queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null || first == wakeUp) {
+                    // No rows can be added once closed is set, so an empty queue stays empty
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                long deadline = first.queuedAt + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T> next = remaining > 0 && !closed ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null || next == wakeUp) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                // Only stopped by close, so that queued rows are never dropped
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void write(List<Pending<T>> batch) {
+        List<T> rows = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            rows.add(pending.row);
+        }
+
+        try {
+            SqlUtils.inTransaction(jdbi, (handle) -> new InsertBatchQuery<>(handle, query).execute(rows));
+            batch.forEach((pending) -> pending.future.complete(null));
+        } catch (Throwable e) {
+            batch.forEach((pending) -> pending.future.completeExceptionally(e));
+            // The flusher cannot be trusted to continue after an Error, e.g OutOfMemoryError
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    // No rows are flushed once the flusher has stopped, so they are failed instead of left waiting.
+    // Adders blocked on a full queue hold the read lock, and are let in by draining the queue until it can be closed.
+    private void stop(Error cause) {
+        failure = cause;
+        while (!closing.writeLock().tryLock()) {
+            failQueued(cause);
+            Thread.yield();
+        }
+        try {
+            closed = true;
+        } finally {
+            closing.writeLock().unlock();
+        }
+        failQueued(cause);
+        open.remove(this);
+    }
+
+    private void failQueued(Error cause) {
+        Pending<T> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    private static class Pending<T> {
+        private final T row;
+        private final long queuedAt = System.nanoTime();
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        Pending(T row) {
+            this.row = row;
+        }
+    }
+}
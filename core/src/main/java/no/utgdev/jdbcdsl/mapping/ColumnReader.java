@@ -0,0 +1,88 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import io.vavr.CheckedFunction2;
+import lombok.SneakyThrows;
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+
+import java.sql.ResultSet;
+
+// Reads one column from a ResultSet, with value-extractor and deserializer bound together up front.
+// Deserializers registered later are picked up by binding them again, once TypeMapping has changed.
+// The reader is shared, so the index of the column is resolved by the row mapper once per ResultSet and passed in.
+public final class ColumnReader<FROM, TO> {
+    private final String name;
+    private final QueryMapping.InternalColumn<FROM, TO> column;
+    private volatile Binding<TO> binding;
+
+    private ColumnReader(QueryMapping.InternalColumn<FROM, TO> column) {
+        this.name = column.name;
+        this.column = column;
+        this.binding = bind(column);
+    }
+
+    static <FROM, TO> ColumnReader<FROM, TO> of(QueryMapping.InternalColumn<FROM, TO> column) {
+        return new ColumnReader<>(column);
+    }
+
+    private static <FROM, TO> Binding<TO> bind(QueryMapping.InternalColumn<FROM, TO> column) {
+        int version = TypeMapping.version();
+        TypeMapping.Deserializer<FROM, TO> deserializer = TypeMapping.getDeserializer(column)
+                .getOrElseThrow(() -> new IllegalArgumentException("targetClass contains column without known mapping: " + column));
+
+        return new Binding<>(
+                version,
+                bind(ValueMapping.getReader(column), deserializer, column.from == column.to),
+                bind(ValueMapping.getIndexReader(column), deserializer, column.from == column.to)
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, FROM, TO> CheckedFunction2<ResultSet, K, TO> bind(CheckedFunction2<ResultSet, K, ?> extractor, TypeMapping.Deserializer<FROM, TO> deserializer, boolean identity) {
+        if (identity) {
+            return (CheckedFunction2<ResultSet, K, TO>) extractor;
+        }
+        return (rs, key) -> TypeMapping.convert((FROM) extractor.apply(rs, key), deserializer);
+    }
+
+    // Label-based, for reading a single row
+    public Column<FROM, TO> read(ResultSet rs) {
+        return read(rs, 0);
+    }
+
+    public Column<FROM, TO> read(ResultSet rs, int index) {
+        return Column.of(readValue(rs, index));
+    }
+
+    // Reads by label if the index is not known (< 1)
+    @SneakyThrows
+    public TO readValue(ResultSet rs, int index) {
+        Binding<TO> binding = this.binding;
+        if (binding.version != TypeMapping.version()) {
+            binding = bind(column);
+            this.binding = binding;
+        }
+        return index > 0 ? binding.byIndex.apply(rs, index) : binding.byLabel.apply(rs, name);
+    }
+
+    public int indexIn(ResultSet rs) {
+        return indexOf(rs, name);
+    }
+
+    // Drivers or wrappers not knowing the label return 0, and the column is read by label
+    @SneakyThrows
+    static int indexOf(ResultSet rs, String name) {
+        return Math.max(rs.findColumn(name), 0);
+    }
+
+    private static class Binding<TO> {
+        private final int version;
+        private final CheckedFunction2<ResultSet, String, TO> byLabel;
+        private final CheckedFunction2<ResultSet, Integer, TO> byIndex;
+
+        Binding(int version, CheckedFunction2<ResultSet, String, TO> byLabel, CheckedFunction2<ResultSet, Integer, TO> byIndex) {
+            this.version = version;
+            this.byLabel = byLabel;
+            this.byIndex = byIndex;
+        }
+    }
+}
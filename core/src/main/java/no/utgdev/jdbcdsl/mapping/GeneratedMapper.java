@@ -0,0 +1,87 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+
+// Base class of the mappers generated by jdbc-dsl-processor, named <Record>_SqlMapper and placed next to the record
+public abstract class GeneratedMapper<T extends SqlRecord> {
+    static final String SUFFIX = "_SqlMapper";
+
+    private final String[] columns;
+
+    protected GeneratedMapper(String... columns) {
+        this.columns = columns;
+    }
+
+    public String[] columns() {
+        return columns.clone();
+    }
+
+    // The indices of columns(), resolved once per ResultSet by QueryMapping
+    public abstract T read(ResultSet rs, int[] indices);
+
+    int[] indicesIn(ResultSet rs) {
+        int[] indices = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            indices[i] = ColumnReader.indexOf(rs, columns[i]);
+        }
+        return indices;
+    }
+
+    // Value of the column at the given index, unwrapped from its Column
+    public abstract Object value(T record, int column);
+
+    protected static <FROM, TO> ColumnReader<FROM, TO> reader(String name, Class<FROM> from, Class<TO> to) {
+        return ColumnReader.of(QueryMapping.InternalColumn.of(name, null, from, to));
+    }
+
+    // Private fields, e.g those of lombok @Value-records, are read through a MethodHandle created once
+    protected static MethodHandle getter(Class<?> recordClass, String name) {
+        try {
+            Field field = recordClass.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup()
+                    .unreflectGetter(field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Generated mapper does not match " + recordClass, e);
+        }
+    }
+
+    protected static Object valueOf(Column<?, ?> column) {
+        return column == null ? null : column.value;
+    }
+
+    protected static Object valueOf(MethodHandle getter, Object record) {
+        try {
+            return valueOf((Column<?, ?>) (Object) getter.invokeExact(record));
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to read column", e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends SqlRecord> GeneratedMapper<T> find(Class<T> recordClass) {
+        String name = recordClass.getName().replace('$', '_') + SUFFIX;
+        try {
+            Class<?> mapperClass = Class.forName(name, true, recordClass.getClassLoader());
+            return (GeneratedMapper<T>) mapperClass.getConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // E.g unknown type mappings, reported the same way as by the reflection based mapping
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not create generated mapper " + name, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create generated mapper " + name, e);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+import lombok.Value;
+import no.utgdev.jdbcdsl.DatachangeingQuery;
+import no.utgdev.jdbcdsl.SelectQuery;
+import no.utgdev.jdbcdsl.UpdateBatchQuery;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+public class QueryMapping<T extends SqlRecord> implements Function<ResultSet, T> {
+    private static List<String> ignoreFields = List.of("$jacocoData");
+    private static final ConcurrentMap<Class<?>, QueryMapping<?>> mappers = new ConcurrentHashMap<>();
+    private Class<T> targetClass;
+    private GeneratedMapper<T> generated;
+    private String[] columnNames;
+    private List<InternalColumn> columns;
+    private Constructor<T> constructor;
+    private Accessor[] accessors;
+    private MethodHandle instantiator;
+
+    private QueryMapping(Class<T> targetClass) {
+        this.targetClass = targetClass;
+        this.generated = GeneratedMapper.find(targetClass);
+        if (this.generated != null) {
+            this.columnNames = this.generated.columns();
+            return;
+        }
+
+        this.columns = getColumns();
+        this.columnNames = this.columns.map((column) -> column.name).toJavaArray(String.class);
+        this.constructor = getConstructor();
+        this.accessors = this.columns.map(QueryMapping::createAccessor).toJavaArray(Accessor.class);
+        this.instantiator = createInstantiator(this.constructor);
+    }
+
+    // Built at most once per class; a failed build is not stored, and is retried by the next caller
+    @SuppressWarnings("unchecked")
+    public static <T extends SqlRecord> QueryMapping<T> of(Class<T> targetClass) {
+        QueryMapping<?> mapping = mappers.get(targetClass);
+        if (mapping == null) {
+            mapping = mappers.computeIfAbsent(targetClass, (cls) -> new QueryMapping<>(targetClass));
+        }
+
+        return (QueryMapping<T>) mapping;
+    }
+
+    // Builds and validates the mappings up front, e.g at startup, so that no request pays for it
+    // The array is copied rather than handed on, which is what makes @SafeVarargs hold
+    @SafeVarargs
+    public static void warmUp(Class<? extends SqlRecord>... targetClasses) {
+        List<Class<? extends SqlRecord>> classes = List.empty();
+        for (Class<? extends SqlRecord> targetClass : targetClasses) {
+            classes = classes.append(targetClass);
+        }
+        warmUp(classes);
+    }
+
+    public static void warmUp(Iterable<Class<? extends SqlRecord>> targetClasses) {
+        IllegalArgumentException failures = null;
+        for (Class<? extends SqlRecord> targetClass : targetClasses) {
+            try {
+                of(targetClass);
+            } catch (RuntimeException e) {
+                if (failures == null) {
+                    failures = new IllegalArgumentException("Could not create mapping for all records");
+                }
+                failures.addSuppressed(new IllegalArgumentException(targetClass.getName() + ": " + e.getMessage(), e));
+            }
+        }
+
+        if (failures != null) {
+            throw failures;
+        }
+    }
+
+    public UpdateBatchQuery<T> applyColumn(UpdateBatchQuery<T> query) {
+        if (generated != null) {
+            for (int i = 0; i < columnNames.length; i++) {
+                int index = i;
+                query.add(columnNames[i], (record) -> generated.value(record, index));
+            }
+            return query;
+        }
+
+        for (Accessor accessor : accessors) {
+            query.add(accessor.name, accessor::get);
+        }
+        return query;
+    }
+
+    public <Q extends DatachangeingQuery> Q applyColumn(Q query, T record) {
+        if (generated != null) {
+            for (int i = 0; i < columnNames.length; i++) {
+                query.set(columnNames[i], generated.value(record, i));
+            }
+            return query;
+        }
+
+        for (Accessor accessor : accessors) {
+            query.set(accessor.name, accessor.get(record));
+        }
+        return query;
+    }
+
+    public SelectQuery<T> applyColumn(SelectQuery<T> query) {
+        for (String name : columnNames) {
+            query.column(name);
+        }
+        return query;
+    }
+
+    // Maps the current row only, resolving the column indices on every call. Prefer rowMapper(rs) for reading many rows
+    public T createMapper(ResultSet rs) {
+        return rowMapper(rs).apply(rs);
+    }
+
+    @Override
+    public T apply(ResultSet rs) {
+        return createMapper(rs);
+    }
+
+    // Resolves the column indices once, and maps every row of the given ResultSet by index.
+    // The mapper holds no state shared with other ResultSets, but is not meant to be used with any other ResultSet.
+    public Function<ResultSet, T> rowMapper(ResultSet rs) {
+        if (generated != null) {
+            int[] indices = generated.indicesIn(rs);
+            return (row) -> generated.read(row, indices);
+        }
+
+        int[] indices = new int[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            indices[i] = accessors[i].reader.indexIn(rs);
+        }
+        return (row) -> read(row, indices);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T read(ResultSet rs, int[] indices) {
+        try {
+            Object[] parameters = new Object[accessors.length];
+            for (int i = 0; i < accessors.length; i++) {
+                parameters[i] = accessors[i].read(rs, indices[i]);
+            }
+
+            return (T) (Object) instantiator.invokeExact(parameters);
+        } catch (Throwable err) {
+            throw new RuntimeException("Failed to deserialize", err);
+        }
+    }
+
+    public static <FROM, TO> void register(Class<FROM> fromCls, Class<TO> toCls, TypeMapping.Deserializer<FROM, TO> deserializer) {
+        TypeMapping.register(fromCls, toCls, deserializer);
+    }
+
+    // Field and constructor are made accessible once, so that records need not be public
+    private static Accessor createAccessor(InternalColumn<?, ?> column) {
+        try {
+            column.field.setAccessible(true);
+            MethodHandle getter = MethodHandles.lookup()
+                    .unreflectGetter(column.field)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+
+            return new Accessor(column.name, getter, ColumnReader.of(column), isColumn(column.field));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Could not access field " + column.field, e);
+        }
+    }
+
+    private static MethodHandle createInstantiator(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            return MethodHandles.lookup()
+                    .unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, constructor.getParameterCount())
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("Could not access constructor " + constructor, e);
+        }
+    }
+
+    // Fields are either Column<FROM, TO>, plain fields annotated with @SqlType, or components of a java record.
+    // The columns of a record follow its components, since the order of getDeclaredFields is unspecified
+    @SuppressWarnings("unchecked")
+    private List<InternalColumn> getColumns() {
+        List<Field> fields = isRecord(targetClass) ?
+                recordComponents(targetClass).map(this::getRecordField) :
+                List.of(targetClass.getDeclaredFields())
+                        .filter((field) -> !Modifier.isStatic(field.getModifiers()))
+                        .filter((field) -> !ignoreFields.contains(field.getName()));
+
+        verifyAllFieldsAreColumns(fields, isRecord(targetClass));
+
+        List<InternalColumn> columns = fields
+                .map((field) -> {
+                    String name = field.getName();
+                    if (isColumn(field)) {
+                        Type[] genericTypes = ((ParameterizedType) field.getAnnotatedType().getType()).getActualTypeArguments();
+                        Class from = ((Class) genericTypes[0]);
+                        Class to = ((Class) genericTypes[1]);
+                        return new InternalColumn(name, field, from, to);
+                    }
+
+                    Class to = MethodType.methodType(field.getType()).wrap().returnType();
+                    SqlType sqlType = field.getAnnotation(SqlType.class);
+                    Class from = sqlType != null ? sqlType.value() : to;
+                    return new InternalColumn(name, field, from, to);
+                });
+
+        verifyAllMappingAreDefined(columns);
+
+        return columns;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Constructor<T> getConstructor() {
+        InternalColumn[] parameterTypes = this.columns.toJavaArray(InternalColumn.class);
+
+        Constructor<T> constructor = isRecord(targetClass) ?
+                findCanonicalConstructor(targetClass) :
+                findConstructorWithParamLength(targetClass, parameterTypes.length);
+        verifyConstructorParameters(constructor, parameterTypes);
+
+        return constructor;
+    }
+
+    private static boolean isColumn(Field field) {
+        return Column.class.isAssignableFrom(field.getType());
+    }
+
+    // Class.isRecord is not available on java 8, so it is looked up reflectively
+    private static boolean isRecord(Class<?> cls) {
+        try {
+            return (Boolean) Class.class.getMethod("isRecord").invoke(cls);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    // Class.getRecordComponents is not available on java 8 either, the components are returned as (name, type)
+    private static List<Tuple2<String, Class<?>>> recordComponents(Class<?> cls) {
+        try {
+            Object[] components = (Object[]) Class.class.getMethod("getRecordComponents").invoke(cls);
+            Method getName = Class.forName("java.lang.reflect.RecordComponent").getMethod("getName");
+            Method getType = Class.forName("java.lang.reflect.RecordComponent").getMethod("getType");
+
+            List<Tuple2<String, Class<?>>> result = List.empty();
+            for (Object component : components) {
+                result = result.append(Tuple.of((String) getName.invoke(component), (Class<?>) getType.invoke(component)));
+            }
+            return result;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not read the record components of " + cls, e);
+        }
+    }
+
+    private Field getRecordField(Tuple2<String, Class<?>> component) {
+        try {
+            return targetClass.getDeclaredField(component._1);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalArgumentException("Could not find the field of record component " + component._1, e);
+        }
+    }
+
+    private static void verifyAllFieldsAreColumns(List<Field> fields, boolean isRecord) {
+        Option<Field> brokenField = fields
+                .find((field) -> !isColumn(field) && !isRecord && !field.isAnnotationPresent(SqlType.class));
+
+
+        if (brokenField.isDefined()) {
+            throw new IllegalArgumentException("targetClass contains non-column fields " + brokenField);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void verifyAllMappingAreDefined(List<InternalColumn> columns) {
+        boolean allDefined = columns
+                .map((Function<InternalColumn, Option>) TypeMapping::getDeserializer)
+                .forAll(Option::isDefined);
+
+        if (!allDefined) {
+            throw new IllegalArgumentException("targetClass contains column without known mapping: " + columns);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> findConstructorWithParamLength(Class<T> targetClass, int targetLength) {
+        List<Constructor<?>> constructors = List.of(targetClass.getConstructors())
+                .filter((constructor) -> constructor.getParameterCount() == targetLength);
+
+        if (constructors.length() != 1) {
+            throw new IllegalArgumentException("Found " + constructors.length() + " constructors with " + targetLength + "parameters. Expected just one.");
+        }
+
+        return (Constructor<T>) constructors.get(0);
+    }
+
+    private static <T> Constructor<T> findCanonicalConstructor(Class<T> targetClass) {
+        Class<?>[] types = recordComponents(targetClass).map(Tuple2::_2).toJavaList().toArray(new Class<?>[0]);
+        try {
+            return targetClass.getDeclaredConstructor(types);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Could not find canonical constructor of " + targetClass, e);
+        }
+    }
+
+    private static <T> void verifyConstructorParameters(Constructor<T> constructor, InternalColumn[] parameterTypes) {
+        List<Type> constructorTypes = List.of(constructor.getGenericParameterTypes());
+
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (!isMatchingParameter(constructorTypes.get(i), parameterTypes[i])) {
+                String msg = "Constructor parameter mismatch, expected " + Arrays.toString(parameterTypes) + " found: " + constructorTypes;
+                throw new IllegalArgumentException(msg);
+            }
+        }
+    }
+
+    private static boolean isMatchingParameter(Type constructorType, InternalColumn<?, ?> column) {
+        if (!isColumn(column.field)) {
+            return constructorType.equals(column.field.getGenericType());
+        } else if (!(constructorType instanceof ParameterizedType)) {
+            return false;
+        }
+
+        Type[] genericTypes = ((ParameterizedType) constructorType).getActualTypeArguments();
+        return column.from.equals(genericTypes[0]) && column.to.equals(genericTypes[1]);
+    }
+
+    private static final class Accessor {
+        private final String name;
+        private final MethodHandle getter;
+        private final ColumnReader<?, ?> reader;
+        private final boolean wrapped;
+
+        Accessor(String name, MethodHandle getter, ColumnReader<?, ?> reader, boolean wrapped) {
+            this.name = name;
+            this.getter = getter;
+            this.reader = reader;
+            this.wrapped = wrapped;
+        }
+
+        // Plain fields get the converted value directly, without allocating a Column
+        Object read(ResultSet rs, int index) {
+            return wrapped ? reader.read(rs, index) : reader.readValue(rs, index);
+        }
+
+        // Binds the value of the column, not the Column itself
+        Object get(Object record) {
+            try {
+                Object value = getter.invokeExact(record);
+                if (!wrapped) {
+                    return value;
+                }
+                Column<?, ?> column = (Column<?, ?>) value;
+                return column == null ? null : column.value;
+            } catch (Throwable err) {
+                throw new RuntimeException("Failed to read " + name, err);
+            }
+        }
+    }
+
+    @Value(staticConstructor = "of")
+    static class InternalColumn<FROM, TO> {
+        public String name;
+        public Field field;
+        public Class<FROM> from;
+        public Class<TO> to;
+    }
+
+    @Value(staticConstructor = "of")
+    public static class Column<FROM, TO> {
+        public TO value;
+    }
+}
@@ -0,0 +1,14 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a plain field as a column, read from the database as the given type and converted with TypeMapping.
+// E.g `@SqlType(Date.class) LocalDate birth;` instead of `Column<Date, LocalDate> birth;`
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface SqlType {
+    Class<?> value();
+}
@@ -1,29 +1,37 @@
 package no.utgdev.jdbcdsl.mapping;
 
-import io.vavr.collection.HashMap;
-import io.vavr.collection.Map;
 import io.vavr.control.Option;
 
 import java.sql.Date;
 import java.sql.Time;
 import java.sql.Timestamp;
 import java.time.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 class TypeMapping {
     public interface Deserializer<FROM, TO> extends Function<FROM, TO> {
     }
 
-    static Map<Class<?>, Map<Class<?>, Deserializer<?, ?>>> typemappers = HashMap.empty();
+    private static final Map<Class<?>, Map<Class<?>, Deserializer<?, ?>>> typemappers = new ConcurrentHashMap<>();
+    // Bumped on every change, so that readers having bound a deserializer know to look it up again
+    private static final AtomicInteger version = new AtomicInteger();
 
     static {
         registerDefaults();
     }
 
     static <FROM, TO> void register(Class<FROM> fromCls, Class<TO> toCls, Deserializer<FROM, TO> deserializer) {
-        Map<Class<?>, Deserializer<?, ?>> toMap = TypeMapping.typemappers.get(fromCls).getOrElse(HashMap.empty());
-        toMap = toMap.put(toCls, deserializer);
-        TypeMapping.typemappers = TypeMapping.typemappers.put(fromCls, toMap);
+        typemappers
+                .computeIfAbsent(fromCls, (cls) -> new ConcurrentHashMap<>())
+                .put(toCls, deserializer);
+        version.incrementAndGet();
+    }
+
+    static int version() {
+        return version.get();
     }
 
     @SuppressWarnings("unchecked")
@@ -32,18 +40,18 @@ class TypeMapping {
             return Option.of((FROM from) -> (TO) from);
         }
 
-        Deserializer<FROM, TO> deserializer = (Deserializer<FROM, TO>) typemappers
-                .get(column.from)
-                .flatMap((toMap) -> toMap.get(column.to))
-                .getOrNull();
-
-        return Option.of(deserializer);
+        Map<Class<?>, Deserializer<?, ?>> toMap = typemappers.get(column.from);
+        return Option.of(toMap == null ? null : (Deserializer<FROM, TO>) toMap.get(column.to));
     }
 
     static  <TO, FROM> TO convert(FROM value, QueryMapping.InternalColumn<FROM, TO> column) {
         Deserializer<FROM, TO> deserializer = getDeserializer(column)
                 .getOrElseThrow(() -> new IllegalStateException("Could not find serializer for " + column));
 
+        return convert(value, deserializer);
+    }
+
+    static <TO, FROM> TO convert(FROM value, Deserializer<FROM, TO> deserializer) {
         try {
             return deserializer.apply(value);
         } catch (NullPointerException e) {
@@ -54,6 +62,12 @@ class TypeMapping {
         }
     }
 
+    static void reset() {
+        typemappers.clear();
+        version.incrementAndGet();
+        registerDefaults();
+    }
+
     static void registerDefaults() {
         register(Date.class, LocalDate.class, Date::toLocalDate);
         register(Time.class, LocalTime.class, Time::toLocalTime);
@@ -0,0 +1,59 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import io.vavr.CheckedFunction1;
+import io.vavr.CheckedFunction2;
+import io.vavr.control.Option;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class ValueMapping {
+    private static final Map<Class<?>, CheckedFunction2<ResultSet, String, ?>> valuemappers = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, CheckedFunction2<ResultSet, Integer, ?>> indexmappers = new ConcurrentHashMap<>();
+
+    static {
+        register(String.class, ResultSet::getString, ResultSet::getString);
+        register(Boolean.class, ResultSet::getBoolean, ResultSet::getBoolean);
+        register(Integer.class, ResultSet::getInt, ResultSet::getInt);
+        register(Byte.class, ResultSet::getByte, ResultSet::getByte);
+        register(Byte[].class, ResultSet::getBytes, ResultSet::getBytes);
+        register(Double.class, ResultSet::getDouble, ResultSet::getDouble);
+        register(Float.class, ResultSet::getFloat, ResultSet::getFloat);
+        register(Long.class, ResultSet::getLong, ResultSet::getLong);
+        register(Short.class, ResultSet::getShort, ResultSet::getShort);
+        register(Object.class, ResultSet::getObject, ResultSet::getObject);
+        register(BigDecimal.class, ResultSet::getBigDecimal, ResultSet::getBigDecimal);
+        register(Time.class, ResultSet::getTime, ResultSet::getTime);
+        register(Timestamp.class, ResultSet::getTimestamp, ResultSet::getTimestamp);
+        register(Date.class, ResultSet::getDate, ResultSet::getDate);
+        register(URL.class, ResultSet::getURL, ResultSet::getURL);
+        register(Blob.class, ResultSet::getBlob, ResultSet::getBlob);
+        register(Clob.class, ResultSet::getBlob, ResultSet::getBlob);
+    }
+
+    private static void register(Class<?> cls, CheckedFunction2<ResultSet, String, ?> byLabel, CheckedFunction2<ResultSet, Integer, ?> byIndex) {
+        valuemappers.put(cls, byLabel);
+        indexmappers.put(cls, byIndex);
+    }
+
+    static CheckedFunction2<ResultSet, String, ?> getReader(QueryMapping.InternalColumn<?, ?> column) {
+        return Option.of(valuemappers.get(column.from))
+                .getOrElseThrow(() -> new IllegalArgumentException("Mapping from " + column.from + " not found."));
+    }
+
+    static CheckedFunction2<ResultSet, Integer, ?> getIndexReader(QueryMapping.InternalColumn<?, ?> column) {
+        return Option.of(indexmappers.get(column.from))
+                .getOrElseThrow(() -> new IllegalArgumentException("Mapping from " + column.from + " not found."));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <FROM> FROM getValue(QueryMapping.InternalColumn<FROM, ?> column, ResultSet rs) {
+        return (FROM) Option.of(valuemappers.get(column.from))
+                .toTry(() -> new RuntimeException("Mapping from " + column.from + " not found."))
+                .mapTry((CheckedFunction1<CheckedFunction2<ResultSet, String, ?>, Object>) func -> func.apply(rs, column.name))
+                .get();
+    }
+}
@@ -1,5 +1,8 @@
 package no.utgdev.jdbcdsl.order;
 
+import lombok.EqualsAndHashCode;
+
+@EqualsAndHashCode
 public class OrderByExpression {
     public static OrderByExpression asc(final String field) {
         return new OrderByExpression(OrderOperator.ASC, field);
@@ -17,7 +20,15 @@ public class OrderByExpression {
         this.columnName = columnName;
     }
 
+    public OrderOperator getOperator() {
+        return operator;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
     public String toSql() {
-        return String.format("%s %s", this.columnName, this.operator.sql);
+        return this.columnName + " " + this.operator.sql;
     }
 }
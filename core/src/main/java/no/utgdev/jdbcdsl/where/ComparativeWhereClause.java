@@ -0,0 +1,45 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+
+@EqualsAndHashCode(callSuper = false)
+public class ComparativeWhereClause extends WhereClause {
+    private final WhereOperator operator;
+    private final String field;
+    private final Object value;
+
+    public ComparativeWhereClause(WhereOperator operator, String field, Object value) {
+        this.operator = operator;
+        this.field = field;
+        this.value = value;
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(this.field).append(' ').append(this.operator.sql).append(" ?");
+        }
+        if (args != null) {
+            args.add(value);
+        }
+    }
+
+    boolean isEquals() {
+        return operator == WhereOperator.EQUALS;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    Object getValue() {
+        return value;
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(ComparativeWhereClause.class, this.operator, this.field);
+    }
+}
@@ -0,0 +1,29 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+
+@EqualsAndHashCode(callSuper = false)
+class ConstantWhereClause extends WhereClause {
+    static final ConstantWhereClause TRUE = new ConstantWhereClause(true);
+    static final ConstantWhereClause FALSE = new ConstantWhereClause(false);
+
+    private final boolean value;
+
+    private ConstantWhereClause(boolean value) {
+        this.value = value;
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(value ? "1 = 1" : "1 = 0");
+        }
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(ConstantWhereClause.class, value);
+    }
+}
@@ -0,0 +1,53 @@
+package no.utgdev.jdbcdsl.where;
+
+import no.utgdev.jdbcdsl.SqlUtilsException;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// Pads IN-lists up to the next step by repeating the last value, bounding the number of distinct statements.
+// Lists longer than the largest step are left as they are
+public final class InListPadding {
+    // Oracle rejects IN-lists with more than 1000 elements
+    private static final int DEFAULT_MAX_SIZE = 1000;
+
+    private final int[] steps;
+
+    private InListPadding(int[] steps) {
+        this.steps = steps;
+    }
+
+    public static InListPadding none() {
+        return new InListPadding(new int[0]);
+    }
+
+    public static InListPadding powersOfTwo() {
+        return powersOfTwo(DEFAULT_MAX_SIZE);
+    }
+
+    // 1, 2, 4, ... up to maxSize, with maxSize itself as the last step
+    public static InListPadding powersOfTwo(int maxSize) {
+        IntStream.Builder steps = IntStream.builder();
+        for (int step = 1; step < maxSize; step *= 2) {
+            steps.add(step);
+        }
+        return steps(steps.add(maxSize).build().toArray());
+    }
+
+    public static InListPadding steps(int... steps) {
+        int[] sorted = Arrays.stream(steps).sorted().distinct().toArray();
+        if (sorted.length > 0 && sorted[0] < 1) {
+            throw new SqlUtilsException("Padding steps must be at least 1");
+        }
+        return new InListPadding(sorted);
+    }
+
+    public int padTo(int size) {
+        for (int step : steps) {
+            if (step >= size) {
+                return step;
+            }
+        }
+        return size;
+    }
+}
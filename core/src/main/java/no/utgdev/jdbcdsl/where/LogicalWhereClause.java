@@ -0,0 +1,323 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import io.vavr.collection.Vector;
+import no.utgdev.jdbcdsl.ArgSink;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Chains of the same operator are flattened, so a.and(b).and(c) renders as (a) AND (b) AND (c)
+public class LogicalWhereClause extends WhereClause {
+    private final WhereOperator operator;
+    private final Vector<WhereClause> terms;
+    // Computed on first use, 0 until then
+    private int hash;
+    // Computed on first use, clauses are immutable so a query executed many times simplifies its where-clause once
+    private WhereClause simplified;
+
+    public LogicalWhereClause(WhereOperator operator, WhereClause wc1, WhereClause wc2) {
+        this(operator, terms(operator, wc1).appendAll(terms(operator, wc2)));
+    }
+
+    LogicalWhereClause(WhereOperator operator, Vector<WhereClause> terms) {
+        this.operator = operator;
+        this.terms = terms;
+    }
+
+    static LogicalWhereClause of(WhereOperator operator, Iterable<? extends WhereClause> clauses) {
+        Vector<WhereClause> terms = Vector.empty();
+        for (WhereClause clause : clauses) {
+            terms = terms.appendAll(terms(operator, clause));
+        }
+        return new LogicalWhereClause(operator, terms);
+    }
+
+    private static Vector<WhereClause> terms(WhereOperator operator, WhereClause whereClause) {
+        if (whereClause instanceof LogicalWhereClause && ((LogicalWhereClause) whereClause).operator == operator) {
+            return ((LogicalWhereClause) whereClause).terms;
+        }
+        return Vector.of(whereClause);
+    }
+
+    // Rendered with an explicit stack, so that deeply nested clauses cannot overflow the call stack
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(this);
+
+        while (!stack.isEmpty()) {
+            Object item = stack.pop();
+            if (item instanceof String) {
+                if (sql != null) {
+                    sql.append((String) item);
+                }
+            } else if (item instanceof LogicalWhereClause) {
+                LogicalWhereClause clause = (LogicalWhereClause) item;
+                String separator = ") " + clause.operator.sql + " (";
+
+                stack.push(")");
+                for (int i = clause.terms.size() - 1; i > 0; i--) {
+                    stack.push(clause.terms.get(i));
+                    stack.push(separator);
+                }
+                stack.push(clause.terms.get(0));
+                stack.push("(");
+            } else {
+                ((WhereClause) item).renderTo(sql, args);
+            }
+        }
+    }
+
+    // Post-order traversal with an explicit stack, for the same reason as in renderTo.
+    // Terms which have been simplified before are not traversed again
+    @Override
+    public WhereClause simplify() {
+        if (simplified != null) {
+            return simplified;
+        }
+
+        Deque<Frame> frames = new ArrayDeque<>();
+        frames.push(new Frame(this));
+        WhereClause result = null;
+
+        while (true) {
+            Frame frame = frames.peek();
+            if (result != null) {
+                frame.simplified.add(result);
+                result = null;
+            }
+
+            if (frame.index < frame.clause.terms.size()) {
+                WhereClause term = frame.clause.terms.get(frame.index++);
+                if (term instanceof LogicalWhereClause && ((LogicalWhereClause) term).simplified != null) {
+                    result = ((LogicalWhereClause) term).simplified;
+                } else if (term instanceof LogicalWhereClause) {
+                    frames.push(new Frame((LogicalWhereClause) term));
+                } else {
+                    result = term.simplify();
+                }
+            } else {
+                frames.pop();
+                result = frame.clause.combine(frame.simplified);
+                frame.clause.simplified = result;
+                if (frames.isEmpty()) {
+                    return result;
+                }
+            }
+        }
+    }
+
+    private WhereClause combine(List<WhereClause> simplified) {
+        WhereClause absorbing = operator == WhereOperator.AND ? alwaysFalse() : alwaysTrue();
+        WhereClause neutral = operator == WhereOperator.AND ? alwaysTrue() : alwaysFalse();
+
+        Set<WhereClause> distinct = new LinkedHashSet<>();
+        for (WhereClause term : simplified) {
+            for (WhereClause flattened : terms(operator, term)) {
+                if (flattened.equals(absorbing)) {
+                    return absorbing;
+                } else if (!flattened.equals(neutral)) {
+                    distinct.add(flattened);
+                }
+            }
+        }
+
+        List<WhereClause> terms = operator == WhereOperator.OR ? mergeEquals(distinct) : new ArrayList<>(distinct);
+        if (terms.isEmpty()) {
+            return neutral;
+        } else if (terms.size() == 1) {
+            return terms.get(0);
+        } else if (isSame(terms)) {
+            return this;
+        }
+        return new LogicalWhereClause(operator, Vector.ofAll(terms));
+    }
+
+    // Nothing changed if every term is still the very same instance
+    private boolean isSame(List<WhereClause> simplified) {
+        if (simplified.size() != terms.size()) {
+            return false;
+        }
+        for (int i = 0; i < simplified.size(); i++) {
+            if (simplified.get(i) != terms.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // (a = 1) OR (a = 2) OR (a IN (3, 4)) is merged to a IN (1, 2, 3, 4), at the position of the first term.
+    // A term which is the only one on its field is kept as it is, unless it is an IN with duplicates or a single value
+    private static List<WhereClause> mergeEquals(Set<WhereClause> terms) {
+        Map<String, Set<Object>> valuesByField = new LinkedHashMap<>();
+        Map<String, WhereClause> onlyTerm = new LinkedHashMap<>();
+        List<Object> merged = new ArrayList<>();
+        for (WhereClause term : terms) {
+            String field;
+            Collection<?> values;
+            if (term instanceof ComparativeWhereClause && ((ComparativeWhereClause) term).isEquals()) {
+                field = ((ComparativeWhereClause) term).getField();
+                values = Collections.singletonList(((ComparativeWhereClause) term).getValue());
+            } else if (term instanceof WhereIn) {
+                field = ((WhereIn) term).getField();
+                values = ((WhereIn) term).getObjects();
+            } else {
+                merged.add(term);
+                continue;
+            }
+
+            if (!valuesByField.containsKey(field)) {
+                valuesByField.put(field, new LinkedHashSet<>());
+                onlyTerm.put(field, term);
+                merged.add(field);
+            } else {
+                onlyTerm.put(field, null);
+            }
+            valuesByField.get(field).addAll(values);
+        }
+
+        List<WhereClause> result = new ArrayList<>();
+        for (Object term : merged) {
+            if (term instanceof String) {
+                Set<Object> values = valuesByField.get(term);
+                WhereClause only = onlyTerm.get(term);
+                if (only instanceof ComparativeWhereClause || only instanceof WhereIn && values.size() > 1 && values.size() == ((WhereIn) only).getObjects().size()) {
+                    result.add(only);
+                    continue;
+                }
+                result.add(values.size() == 1 ?
+                        equals((String) term, values.iterator().next()) :
+                        in((String) term, new ArrayList<>(values)));
+            } else {
+                result.add((WhereClause) term);
+            }
+        }
+        return result;
+    }
+
+    private static class Frame {
+        private final LogicalWhereClause clause;
+        private final List<WhereClause> simplified = new ArrayList<>();
+        private int index;
+
+        Frame(LogicalWhereClause clause) {
+            this.clause = clause;
+        }
+    }
+
+    // Only conjunctions can be split, splitting (a IN (...)) OR b would match the rows of b in every chunk
+    @Override
+    public List<WhereClause> splitIn(int maxInSize) {
+        if (operator != WhereOperator.AND) {
+            return super.splitIn(maxInSize);
+        }
+        return splitFrom(0, maxInSize);
+    }
+
+    // Every chunk of an oversized term is split on the remaining terms as well, giving the cross product of the chunks
+    private List<WhereClause> splitFrom(int start, int maxInSize) {
+        for (int i = start; i < terms.size(); i++) {
+            List<WhereClause> chunks = terms.get(i).splitIn(maxInSize);
+            if (chunks.size() > 1) {
+                List<WhereClause> result = new ArrayList<>();
+                for (WhereClause chunk : chunks) {
+                    result.addAll(new LogicalWhereClause(operator, terms.update(i, chunk)).splitFrom(i + 1, maxInSize));
+                }
+                return result;
+            }
+        }
+        return Collections.singletonList(this);
+    }
+
+    // Flattened in prefix order, so that hashing and comparing the shape does not recurse either
+    @Override
+    public Object getShape() {
+        List<Object> shape = new ArrayList<>();
+        Deque<WhereClause> stack = new ArrayDeque<>();
+        stack.push(this);
+
+        while (!stack.isEmpty()) {
+            WhereClause clause = stack.pop();
+            if (clause instanceof LogicalWhereClause) {
+                LogicalWhereClause logical = (LogicalWhereClause) clause;
+                shape.add(Tuple.of(LogicalWhereClause.class, logical.operator, logical.terms.size()));
+                for (int i = logical.terms.size() - 1; i >= 0; i--) {
+                    stack.push(logical.terms.get(i));
+                }
+            } else {
+                shape.add(clause.getShape());
+            }
+        }
+        return shape;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LogicalWhereClause)) {
+            return false;
+        }
+
+        Deque<LogicalWhereClause> pairs = new ArrayDeque<>();
+        pairs.push(this);
+        pairs.push((LogicalWhereClause) other);
+        while (!pairs.isEmpty()) {
+            LogicalWhereClause a = pairs.pop();
+            LogicalWhereClause b = pairs.pop();
+            if (a == b) {
+                continue;
+            }
+            if (a.operator != b.operator || a.terms.size() != b.terms.size() || a.hashCode() != b.hashCode()) {
+                return false;
+            }
+
+            for (int i = 0; i < a.terms.size(); i++) {
+                WhereClause x = a.terms.get(i);
+                WhereClause y = b.terms.get(i);
+                if (x instanceof LogicalWhereClause && y instanceof LogicalWhereClause) {
+                    pairs.push((LogicalWhereClause) x);
+                    pairs.push((LogicalWhereClause) y);
+                } else if (!x.equals(y)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Children are hashed before their parents, so that the hash of a term never has to be computed recursively
+    @Override
+    public int hashCode() {
+        if (hash != 0) {
+            return hash;
+        }
+
+        Deque<LogicalWhereClause> stack = new ArrayDeque<>();
+        stack.push(this);
+        while (!stack.isEmpty()) {
+            LogicalWhereClause clause = stack.peek();
+            boolean ready = true;
+            for (WhereClause term : clause.terms) {
+                if (term instanceof LogicalWhereClause && ((LogicalWhereClause) term).hash == 0) {
+                    stack.push((LogicalWhereClause) term);
+                    ready = false;
+                }
+            }
+
+            if (ready) {
+                stack.pop();
+                int computed = 31 * clause.operator.hashCode() + clause.terms.hashCode();
+                clause.hash = computed == 0 ? 1 : computed;
+            }
+        }
+        return hash;
+    }
+}
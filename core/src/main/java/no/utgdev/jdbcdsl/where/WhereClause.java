@@ -0,0 +1,101 @@
+package no.utgdev.jdbcdsl.where;
+
+import no.utgdev.jdbcdsl.SqlFragment;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+public abstract class WhereClause implements SqlFragment.Rendered {
+    public static WhereClause equals(String field, Object value) {
+        return new ComparativeWhereClause(WhereOperator.EQUALS, field, value);
+    }
+    public static WhereClause gt(String field, Object value) {
+        return new ComparativeWhereClause(WhereOperator.GT, field, value);
+    }
+    public static WhereClause gteq(String field, Object value) {
+        return new ComparativeWhereClause(WhereOperator.GTEQ, field, value);
+    }
+    public static WhereClause lt(String field, Object value) {
+        return new ComparativeWhereClause(WhereOperator.LT, field, value);
+    }
+    public static WhereClause lteq(String field, Object value) {
+        return new ComparativeWhereClause(WhereOperator.LTEQ, field, value);
+    }
+    public static WhereClause in(String field, Collection<?> objects) {
+        return WhereIn.of(field, objects);
+    }
+
+    // Binds all values as one array-parameter. The element type is guessed from the values, unless typeName is given.
+    // On Oracle typeName is the collection type (e.g SYS.ODCINUMBERLIST), on MSSQL the values are bound as json
+    public static WhereClause inArray(String field, Collection<?> objects) {
+        return WhereInArray.of(field, objects, null);
+    }
+
+    public static WhereClause inArray(String field, Collection<?> objects, String typeName) {
+        return WhereInArray.of(field, objects, typeName);
+    }
+
+    public static WhereClause isNotNull(String field) {
+        return WhereIsNotNull.of(field);
+    }
+
+    public static WhereClause isNull(String field) {
+        return WhereIsNull.of(field);
+    }
+
+    // Combines all clauses in one flat conjunction. An empty collection matches everything
+    public static WhereClause allOf(Collection<? extends WhereClause> clauses) {
+        return combine(WhereOperator.AND, clauses, alwaysTrue());
+    }
+
+    // Combines all clauses in one flat disjunction. An empty collection matches nothing
+    public static WhereClause anyOf(Collection<? extends WhereClause> clauses) {
+        return combine(WhereOperator.OR, clauses, alwaysFalse());
+    }
+
+    private static WhereClause combine(WhereOperator operator, Collection<? extends WhereClause> clauses, WhereClause empty) {
+        if (clauses.isEmpty()) {
+            return empty;
+        }
+        if (clauses.size() == 1) {
+            return clauses.iterator().next();
+        }
+        return LogicalWhereClause.of(operator, clauses);
+    }
+
+    public WhereClause and(WhereClause other) {
+        return new LogicalWhereClause(WhereOperator.AND, this, other);
+    }
+
+    public WhereClause andIf(WhereClause other, boolean add) {
+        return add ? and(other) : this;
+    }
+
+    public WhereClause or(WhereClause other) {
+        return new LogicalWhereClause(WhereOperator.OR, this, other);
+    }
+
+    public static WhereClause alwaysTrue() {
+        return ConstantWhereClause.TRUE;
+    }
+
+    public static WhereClause alwaysFalse() {
+        return ConstantWhereClause.FALSE;
+    }
+
+    public static WhereClause like(String field, String value) {
+        return new WhereLike(field, value);
+    }
+
+    // Returns an equivalent clause with constants folded, duplicate terms removed and equals on the same field merged to IN
+    public WhereClause simplify() {
+        return this;
+    }
+
+    // Splits the clause into disjoint clauses with at most maxInSize elements in each IN-list.
+    // Together the clauses match exactly the same rows as the original
+    public List<WhereClause> splitIn(int maxInSize) {
+        return Collections.singletonList(this);
+    }
+}
@@ -0,0 +1,92 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+import no.utgdev.jdbcdsl.SqlUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+@EqualsAndHashCode(callSuper = false)
+public class WhereIn extends WhereClause {
+    private String field;
+    private Collection<? extends Object> objects;
+
+    WhereIn(String field, Collection<? extends Object> objects) {
+        this.field = field;
+        this.objects = objects;
+    }
+
+    static WhereIn of(String field, Collection<? extends Object> objects) {
+        return new WhereIn(field, objects);
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        int size = paddedSize();
+        if (sql != null) {
+            sql.append(field).append(' ').append(WhereOperator.IN.sql).append(" (");
+            for (int i = 0; i < size; i++) {
+                sql.append(i == 0 ? "?" : ",?");
+            }
+            sql.append(')');
+        }
+        if (args != null) {
+            Object last = null;
+            for (Object object : objects) {
+                args.add(object);
+                last = object;
+            }
+            for (int i = objects.size(); i < size; i++) {
+                args.add(last);
+            }
+        }
+    }
+
+    @Override
+    public WhereClause simplify() {
+        return objects.isEmpty() ? alwaysFalse() : this;
+    }
+
+    String getField() {
+        return field;
+    }
+
+    Collection<?> getObjects() {
+        return objects;
+    }
+
+    // Duplicates are removed before splitting, so that no row is matched by more than one chunk
+    @Override
+    public List<WhereClause> splitIn(int maxInSize) {
+        if (objects.size() <= maxInSize) {
+            return Collections.singletonList(this);
+        }
+
+        List<Object> distinct = new ArrayList<>(new LinkedHashSet<>(objects));
+        List<WhereClause> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += maxInSize) {
+            chunks.add(new WhereIn(field, distinct.subList(i, Math.min(i + maxInSize, distinct.size()))));
+        }
+        return chunks;
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(WhereIn.class, field, paddedSize());
+    }
+
+    // Empty lists have no value to repeat. Padding never goes beyond the IN-list limit of the database,
+    // as the steps are not bound to any dialect
+    private int paddedSize() {
+        if (objects.isEmpty()) {
+            return 0;
+        }
+        int padded = SqlUtils.inListPadding.padTo(objects.size());
+        return Math.max(objects.size(), Math.min(padded, SqlUtils.db.maxInSize));
+    }
+}
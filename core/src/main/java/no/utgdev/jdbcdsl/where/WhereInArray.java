@@ -0,0 +1,164 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+import no.utgdev.jdbcdsl.SqlUtils;
+import no.utgdev.jdbcdsl.SqlUtilsException;
+import org.jdbi.v3.core.argument.Argument;
+import org.jdbi.v3.core.statement.StatementContext;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
+
+// Binds the whole collection as a single parameter, so the sql is the same regardless of its size
+@EqualsAndHashCode(callSuper = false)
+public class WhereInArray extends WhereClause {
+    private final String field;
+    private final Collection<?> objects;
+    private final String typeName;
+
+    WhereInArray(String field, Collection<?> objects, String typeName) {
+        this.field = field;
+        this.objects = objects;
+        this.typeName = typeName;
+    }
+
+    static WhereInArray of(String field, Collection<?> objects, String typeName) {
+        return new WhereInArray(field, objects, typeName);
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(field).append(' ').append(WhereOperator.IN.sql);
+            switch (SqlUtils.db) {
+                case ORACLE:
+                    sql.append(" (SELECT COLUMN_VALUE FROM TABLE(?))");
+                    break;
+                case MSSQL:
+                    sql.append(" (SELECT value FROM OPENJSON(?))");
+                    break;
+                default:
+                    sql.append(" (UNNEST(?))");
+            }
+        }
+        if (args != null) {
+            args.add(new ArrayArgument(objects.toArray(), typeName));
+        }
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(WhereInArray.class, field, SqlUtils.db);
+    }
+
+    // Equal values gives equal arguments, as arguments are part of the keys in QueryCache
+    @EqualsAndHashCode
+    static class ArrayArgument implements Argument {
+        private final Object[] values;
+        private final String typeName;
+
+        ArrayArgument(Object[] values, String typeName) {
+            this.values = values;
+            this.typeName = typeName;
+        }
+
+        @Override
+        public void apply(int position, PreparedStatement statement, StatementContext ctx) throws SQLException {
+            switch (SqlUtils.db) {
+                case ORACLE:
+                    statement.setArray(position, createOracleArray(statement));
+                    break;
+                case MSSQL:
+                    statement.setString(position, toJson());
+                    break;
+                default:
+                    statement.setArray(position, statement.getConnection().createArrayOf(elementTypeName(), values));
+            }
+        }
+
+        // The oracle driver does not support createArrayOf, and is not a compile-time dependency
+        private Array createOracleArray(PreparedStatement statement) throws SQLException {
+            String collectionType = typeName != null ? typeName :
+                    firstValue() instanceof Number ? "SYS.ODCINUMBERLIST" : "SYS.ODCIVARCHAR2LIST";
+            try {
+                Class<?> oracleConnection = Class.forName("oracle.jdbc.OracleConnection");
+                Object connection = statement.getConnection().unwrap(oracleConnection);
+                return (Array) oracleConnection
+                        .getMethod("createOracleArray", String.class, Object.class)
+                        .invoke(connection, collectionType, values);
+            } catch (InvocationTargetException e) {
+                throw new SqlUtilsException(e.getCause());
+            } catch (ReflectiveOperationException e) {
+                throw new SqlUtilsException("Array binding on Oracle requires the oracle jdbc-driver", e);
+            }
+        }
+
+        private String elementTypeName() {
+            if (typeName != null) {
+                return typeName;
+            }
+
+            Object value = firstValue();
+            if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                return "INTEGER";
+            } else if (value instanceof Long) {
+                return "BIGINT";
+            } else if (value instanceof Number) {
+                return "NUMERIC";
+            } else {
+                return "VARCHAR";
+            }
+        }
+
+        private Object firstValue() {
+            for (Object value : values) {
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        String toJson() {
+            StringBuilder json = new StringBuilder("[");
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    json.append(",");
+                }
+
+                Object value = values[i];
+                if (value == null || value instanceof Number || value instanceof Boolean) {
+                    json.append(value);
+                } else {
+                    appendJsonString(json, value.toString());
+                }
+            }
+            return json.append("]").toString();
+        }
+
+        private static void appendJsonString(StringBuilder json, String value) {
+            json.append('"');
+            for (char c : value.toCharArray()) {
+                if (c == '"' || c == '\\') {
+                    json.append('\\').append(c);
+                } else if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+            json.append('"');
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(values);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+
+@EqualsAndHashCode(callSuper = false)
+public class WhereIsNotNull extends WhereClause {
+    private String field;
+
+
+    WhereIsNotNull(String field) {
+        this.field = field;
+    }
+
+    static WhereIsNotNull of(String field) {
+        return new WhereIsNotNull(field);
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(WhereIsNotNull.class, field);
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(field).append(" is not null");
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+
+@EqualsAndHashCode(callSuper = false)
+public class WhereIsNull extends WhereClause {
+    private String field;
+
+
+    WhereIsNull(String field) {
+        this.field = field;
+    }
+
+    static WhereIsNull of(String field) {
+        return new WhereIsNull(field);
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(WhereIsNull.class, field);
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(field).append(" is null");
+        }
+    }
+}
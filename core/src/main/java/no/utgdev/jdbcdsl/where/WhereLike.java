@@ -0,0 +1,31 @@
+package no.utgdev.jdbcdsl.where;
+
+import io.vavr.Tuple;
+import lombok.EqualsAndHashCode;
+import no.utgdev.jdbcdsl.ArgSink;
+
+@EqualsAndHashCode(callSuper = false)
+public class WhereLike extends WhereClause {
+    private final String field;
+    private final Object value;
+
+    public WhereLike(String field, Object value) {
+        this.field = field;
+        this.value = value;
+    }
+
+    @Override
+    public void renderTo(StringBuilder sql, ArgSink args) {
+        if (sql != null) {
+            sql.append(this.field).append(" LIKE ?");
+        }
+        if (args != null) {
+            args.add(this.value);
+        }
+    }
+
+    @Override
+    public Object getShape() {
+        return Tuple.of(WhereLike.class, this.field);
+    }
+}
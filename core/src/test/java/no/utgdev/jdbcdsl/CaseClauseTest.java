@@ -31,4 +31,20 @@ public class CaseClauseTest {
                 4
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void renders_sql_and_args_in_one_pass() {
+        CaseClause clause = CaseClause.of(
+                WhenClause.when(like("field", "startsWith%"), Int(1)),
+                WhenClause.orElse(Int(2))
+        );
+        StringBuilder sql = new StringBuilder("SELECT ");
+        ArgSink args = new ArgSink();
+        args.add("existing");
+
+        clause.as("name").renderTo(sql, args);
+
+        assertThat(sql.toString()).isEqualTo("SELECT CASE WHEN field LIKE ? THEN CAST(? as INT) ELSE CAST(? as INT) END as name");
+        assertThat(args.toArray()).containsExactly("existing", "startsWith%", 1, 2);
+    }
+}
@@ -0,0 +1,1930 @@
+package no.utgdev.jdbcdsl;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
+import lombok.Value;
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+import no.utgdev.jdbcdsl.mapping.SqlRecord;
+import no.utgdev.jdbcdsl.order.OrderByExpression;
+import no.utgdev.jdbcdsl.where.WhereClause;
+import org.assertj.core.api.Assertions;
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Batch;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.Arrays.asList;
+import static no.utgdev.jdbcdsl.CaseClause.WhenClause.orElse;
+import static no.utgdev.jdbcdsl.CaseClause.WhenClause.when;
+import static no.utgdev.jdbcdsl.value.Value.Int;
+import static org.assertj.core.api.Assertions.assertThat;
+
+abstract public class DbTest {
+
+    public final static String TESTTABLE1 = "TESTTABLE1";
+    public final static String TESTTABLE2 = "TESTTABLE2";
+    public final static String ID = "ID";
+    public final static String NAVN = "NAVN";
+    public final static String DEAD = "DEAD";
+    public final static String BIRTHDAY = "BIRTHDAY";
+    public final static String NUMBER_OF_PETS = "NUMBER_OF_PETS";
+    public final static String ADDRESS = "ADDRESS";
+    public final static String TEST_ID_SEQ = "TEST_ID_SEQ";
+
+    protected Jdbi db;
+
+    @Before
+    public void setup() {
+        db.useHandle(handle -> {
+            Batch batch = handle.createBatch();
+            batch.add("CREATE TABLE TESTTABLE1 (\n" +
+                    "  ID VARCHAR(255) NOT NULL,\n" +
+                    "  NAVN VARCHAR(255) NOT NULL,\n" +
+                    "  DEAD VARCHAR(20),\n" +
+                    "  BIRTHDAY TIMESTAMP,\n" +
+                    "  NUMBER_OF_PETS NUMERIC,\n" +
+                    "  PRIMARY KEY(ID)\n" +
+                    ")");
+            batch.add("CREATE TABLE TESTTABLE2 (\n" +
+                    "  ID VARCHAR(255) NOT NULL,\n" +
+                    "  ADDRESS VARCHAR(255),\n" +
+                    "  PRIMARY KEY(ID)\n" +
+                    ")"
+            );
+            batch.add("CREATE SEQUENCE TEST_ID_SEQ START WITH 1 INCREMENT BY 1");
+            batch.execute();
+        });
+    }
+
+    @Test
+    public void insert_and_select() {
+        Testobject object = getTestobjectWithId("007");
+
+        Testobject retrieved = db.withHandle(handle -> {
+            insert(object, handle);
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.equals(ID, object.getId()))
+                    .execute();
+        }).get();
+
+        assertThat(object).isEqualTo(retrieved);
+    }
+
+    @Test
+    public void select_records_by_column_index() {
+        List<NameRecord> records = db.withHandle(handle -> {
+            insert(getTestobjectWithId("001"), handle);
+            insert(getTestobjectWithId("002").setNavn("navn2"), handle);
+
+            return SqlUtils.select(handle, TESTTABLE1, NameRecord.class)
+                    .orderBy(OrderByExpression.asc(ID))
+                    .executeToList();
+        });
+
+        assertThat(records).containsExactly(
+                new NameRecord(Column.of("001"), Column.of("navn navnesen")),
+                new NameRecord(Column.of("002"), Column.of("navn2"))
+        );
+    }
+
+    @Test
+    public void insert_with_next_sequence_id() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            SqlUtils.insert(handle, TESTTABLE1)
+                    .value(ID, DbConstants.nextSeq(TEST_ID_SEQ))
+                    .value(NAVN, DbConstants.CURRENT_TIMESTAMP)
+                    .value(DEAD, true)
+                    .execute();
+
+            SqlUtils.insert(handle, TESTTABLE1)
+                    .value(ID, DbConstants.nextSeq(TEST_ID_SEQ))
+                    .value(NAVN, DbConstants.CURRENT_TIMESTAMP)
+                    .value(DEAD, false)
+                    .execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1).executeToList();
+        });
+        assertThat(testobjects).hasSize(2);
+        assertThat(testobjects.stream().map(Testobject::getId).collect(Collectors.toList())).containsExactly("1", "2");
+
+    }
+
+    @Test
+    public void updatequery() {
+        String oppdatertNavn = "oppdatert navn";
+        Testobject retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("007").toInsertQuery(handle, TESTTABLE1).execute();
+            SqlUtils.update(handle, TESTTABLE1).set(NAVN, oppdatertNavn)
+                    .whereEquals(ID, "007").execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.equals(ID, "007")).execute();
+        }).get();
+
+        assertThat(retrieved.getNavn()).isEqualTo(oppdatertNavn);
+    }
+
+    @Test
+    public void update_batch_query() {
+        String oppdatertNavn = "oppdatert navn";
+
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            List<Testobject> objects = new ArrayList<>();
+            objects.add(getTestobjectWithId("001"));
+            objects.add(getTestobjectWithId("002"));
+            objects.add(getTestobjectWithId("003"));
+            objects.add(getTestobjectWithId("004"));
+            objects.add(getTestobjectWithId("005"));
+            objects.add(getTestobjectWithId("006"));
+            objects.add(getTestobjectWithId("007"));
+
+
+            Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .execute(objects);
+
+            UpdateBatchQuery<Testobject> updateBatchQuery = new UpdateBatchQuery<>(handle, TESTTABLE1);
+            List<Testobject> updateObjects = new ArrayList<>();
+            updateObjects.add(getTestobjectWithId("001").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("002").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("003").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("004").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("005").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("006").setNavn(oppdatertNavn));
+            updateObjects.add(getTestobjectWithId("007").setNavn(oppdatertNavn));
+
+            updateBatchQuery
+                    .add(NAVN, Testobject::getNavn)
+                    .addWhereClause(object -> WhereClause.equals(ID, object.getId())).execute(updateObjects);
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.in(ID, asList("001", "002", "003", "004", "005", "006", "007"))).executeToList();
+        });
+
+        assertThat(retrieved.stream().map(Testobject::getNavn).distinct().collect(Collectors.toList())).containsOnly(oppdatertNavn);
+    }
+
+    @Test
+    public void batch_queries_stream_data_in_chunks() {
+        Tuple2<BatchResult, BatchResult> results = db.withHandle(handle -> {
+            BatchResult inserted = Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .chunkSize(10)
+                    .commitEvery(2)
+                    .execute(IntStream.rangeClosed(1, 25).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i))));
+
+            BatchResult updated = new UpdateBatchQuery<Testobject>(handle, TESTTABLE1)
+                    .add(NAVN, Testobject::getNavn)
+                    .addWhereClause((object) -> WhereClause.equals(ID, object.getId()))
+                    .chunkSize(4)
+                    .execute(IntStream.rangeClosed(1, 10)
+                            .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)).setNavn("oppdatert navn"))
+                            .iterator());
+            return Tuple.of(inserted, updated);
+        });
+
+        long updatedRows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .where(WhereClause.equals(NAVN, "oppdatert navn"))
+                .executeCount());
+
+        assertThat(results._1).isEqualTo(new BatchResult(25, 25, 3));
+        assertThat(results._2).isEqualTo(new BatchResult(10, 10, 3));
+        assertThat(updatedRows).isEqualTo(10);
+    }
+
+    @Test
+    public void batch_queries_keep_committed_chunks_on_failure() {
+        List<Testobject> objects = IntStream.rangeClosed(1, 10)
+                .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i == 8 ? 1 : i)))
+                .collect(Collectors.toList());
+
+        Try<BatchResult> result = Try.of(() -> db.withHandle(handle -> Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                .chunkSize(3)
+                .commitEvery(1)
+                .execute((Iterable<Testobject>) objects)));
+        long rows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result.isFailure()).isTrue();
+        assertThat(rows).isEqualTo(6);
+    }
+
+    @Test
+    public void batch_queries_do_not_commit_the_callers_transaction() {
+        Try<BatchResult> result = Try.of(() -> db.inTransaction(handle -> {
+            insert(getTestobjectWithId("100"), handle);
+            return Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .chunkSize(2)
+                    .commitEvery(1)
+                    .execute(IntStream.rangeClosed(1, 4).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i))));
+        }));
+        long rows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(rows).isEqualTo(0);
+    }
+
+    @Test
+    public void batch_queries_pipeline_extraction_and_execution() {
+        Tuple2<BatchResult, BatchResult> results = db.withHandle(handle -> {
+            BatchResult inserted = Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .chunkSize(4)
+                    .pipelined(2)
+                    .execute(IntStream.rangeClosed(1, 25).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i))));
+
+            BatchResult updated = new UpdateBatchQuery<Testobject>(handle, TESTTABLE1)
+                    .add(NAVN, Testobject::getNavn)
+                    .addWhereClause((object) -> WhereClause.equals(ID, object.getId()))
+                    .chunkSize(3)
+                    .pipelined(1)
+                    .execute(IntStream.rangeClosed(1, 10)
+                            .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)).setNavn("oppdatert navn"))
+                            .iterator());
+            return Tuple.of(inserted, updated);
+        });
+
+        long updatedRows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .where(WhereClause.equals(NAVN, "oppdatert navn"))
+                .executeCount());
+
+        assertThat(results._1).isEqualTo(new BatchResult(25, 25, 7));
+        assertThat(results._2).isEqualTo(new BatchResult(10, 10, 4));
+        assertThat(updatedRows).isEqualTo(10);
+    }
+
+    @Test
+    public void pipelined_batch_query_rethrows_extraction_failure() {
+        Try<BatchResult> result = Try.of(() -> db.withHandle(handle -> new InsertBatchQuery<Testobject>(handle, TESTTABLE1)
+                .add(ID, Testobject::getId)
+                .add(NAVN, (object) -> {
+                    if ("005".equals(object.getId())) {
+                        throw new IllegalStateException("broken row");
+                    }
+                    return object.getNavn();
+                })
+                .chunkSize(2)
+                .commitEvery(1)
+                .pipelined(2)
+                .execute(IntStream.rangeClosed(1, 10).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i))))));
+        long rows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("broken row");
+        assertThat(rows).isEqualTo(4);
+    }
+
+    @Test
+    public void failed_pipelined_batch_query_stops_preparing() throws InterruptedException {
+        db.useHandle(handle -> getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute());
+
+        Try<BatchResult> result = Try.of(() -> db.withHandle(handle -> Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                .chunkSize(1)
+                .pipelined(1)
+                .execute(IntStream.rangeClosed(1, 20).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i))))));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (isPipelinePreparing() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThat(result.isFailure()).isTrue();
+        assertThat(isPipelinePreparing()).isFalse();
+    }
+
+    private static boolean isPipelinePreparing() {
+        return Thread.getAllStackTraces().values().stream()
+                .flatMap(Stream::of)
+                .anyMatch((frame) -> frame.getClassName().endsWith("BatchExecution$Pipeline") && frame.getMethodName().startsWith("lambda$"));
+    }
+
+    @Test
+    public void pipelined_batch_query_reads_the_data_on_the_callers_thread() {
+        db.useHandle(handle -> {
+            for (int i = 1; i <= 10; i++) {
+                getTestobjectWithId(String.format("%03d", i)).toInsertQuery(handle, TESTTABLE1).execute();
+            }
+        });
+
+        Set<Thread> readers = ConcurrentHashMap.newKeySet();
+        BatchResult result = db.withHandle(handle -> {
+            Stream<Testobject> source = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .executeToStream()
+                    .peek((object) -> readers.add(Thread.currentThread()))
+                    .map((object) -> object.setId("kopi-" + object.getId()));
+            return Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .chunkSize(3)
+                    .pipelined(2)
+                    .execute(source);
+        });
+
+        assertThat(result).isEqualTo(new BatchResult(10, 10, 4));
+        assertThat(readers).containsExactly(Thread.currentThread());
+    }
+
+    @Test
+    public void batch_query_rolls_back_on_errors() {
+        Tuple2<Try<BatchResult>, Boolean> result = db.withHandle(handle -> {
+            Try<BatchResult> batch = Try.of(() -> new InsertBatchQuery<Testobject>(handle, TESTTABLE1)
+                    .add(ID, Testobject::getId)
+                    .add(NAVN, (object) -> {
+                        if ("004".equals(object.getId())) {
+                            throw new AssertionError("broken row");
+                        }
+                        return object.getNavn();
+                    })
+                    .chunkSize(2)
+                    .commitEvery(1)
+                    .execute(IntStream.rangeClosed(1, 6).mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)))));
+            return Tuple.of(batch, handle.isInTransaction());
+        });
+        long rows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result._1.getCause()).isInstanceOf(AssertionError.class);
+        assertThat(result._2).isFalse();
+        assertThat(rows).isEqualTo(2);
+    }
+
+    @Test
+    public void batch_insert_with_multi_row_values() {
+        Assume.assumeFalse("hsqldb does not support INSERT ALL", SqlUtils.db == SqlUtils.DbSupport.ORACLE);
+        List<Testobject> objects = IntStream.rangeClosed(1, 25)
+                .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)).setNumberOfPets(i))
+                .collect(Collectors.toList());
+
+        Tuple2<int[], BatchResult> results = db.withHandle(handle -> {
+            int[] inserted = Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .strategy(InsertBatchQuery.Strategy.MULTI_ROW_VALUES)
+                    .maxRowsPerStatement(10)
+                    .execute(objects.subList(0, 12));
+            BatchResult streamed = Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .strategy(InsertBatchQuery.Strategy.MULTI_ROW_VALUES)
+                    .maxRowsPerStatement(4)
+                    .chunkSize(6)
+                    .execute(objects.subList(12, 25).stream());
+            return Tuple.of(inserted, streamed);
+        });
+        List<Testobject> retrieved = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .orderBy(OrderByExpression.asc(ID))
+                .executeToList());
+
+        assertThat(results._1).hasSize(12).containsOnly(1);
+        assertThat(results._2).isEqualTo(new BatchResult(13, 13, 3));
+        assertThat(retrieved).isEqualTo(objects);
+    }
+
+    @Test
+    public void partitioned_batch_writes() {
+        List<Testobject> objects = IntStream.rangeClosed(1, 30)
+                .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)))
+                .collect(Collectors.toList());
+
+        List<PartitionedWrite.Result> inserted = Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .partitioned(db)
+                .byKey(Testobject::getId, 3)
+                .execute(objects);
+        List<PartitionedWrite.Result> updated = new UpdateBatchQuery<Testobject>(null, TESTTABLE1)
+                .add(NAVN, Testobject::getNavn)
+                .addWhereClause((object) -> WhereClause.equals(ID, object.getId()))
+                .partitioned(db)
+                .byKey(Testobject::getId, 3)
+                .execute(objects.stream().map((object) -> object.setNavn("oppdatert navn")).collect(Collectors.toList()));
+        long count = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .where(WhereClause.equals(NAVN, "oppdatert navn"))
+                .executeCount());
+
+        assertThat(inserted.stream().mapToLong((result) -> result.getResult().getUpdateCount()).sum()).isEqualTo(30);
+        assertThat(updated.stream().mapToInt(PartitionedWrite.Result::getRows).sum()).isEqualTo(30);
+        assertThat(count).isEqualTo(30);
+    }
+
+    @Test
+    public void partitioned_batch_writes_reject_commit_every() {
+        Try<PartitionedWrite<Testobject>> insert = Try.of(() -> Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .commitEvery(2)
+                .partitioned(db));
+        Try<PartitionedWrite<Testobject>> update = Try.of(() -> new UpdateBatchQuery<Testobject>(null, TESTTABLE1)
+                .add(NAVN, Testobject::getNavn)
+                .addWhereClause((object) -> WhereClause.equals(ID, object.getId()))
+                .commitEvery(2)
+                .partitioned(db));
+
+        assertThat(insert.getCause()).isInstanceOf(SqlUtilsException.class).hasMessageContaining("commitEvery");
+        assertThat(update.getCause()).isInstanceOf(SqlUtilsException.class).hasMessageContaining("commitEvery");
+    }
+
+    @Test
+    public void partitioned_batch_writes_report_failed_partitions() {
+        db.useHandle(handle -> getTestobjectWithId("005").toInsertQuery(handle, TESTTABLE1).execute());
+        List<Testobject> objects = IntStream.rangeClosed(1, 12)
+                .mapToObj((i) -> getTestobjectWithId(String.format("%03d", i)))
+                .collect(Collectors.toList());
+
+        Try<List<PartitionedWrite.Result>> result = Try.of(() -> Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .partitioned(db)
+                .byKey(Testobject::getId, 4)
+                .execute(objects));
+        long count = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result.getCause()).isInstanceOf(PartitionedWrite.PartitionedWriteException.class);
+        List<PartitionedWrite.Result> failures = ((PartitionedWrite.PartitionedWriteException) result.getCause()).getFailures();
+        assertThat(failures).hasSize(1);
+        assertThat(count).isEqualTo(12 - failures.get(0).getRows() + 1);
+    }
+
+    @Test
+    public void write_behind_buffer_coalesces_rows_from_many_threads() {
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        List<CompletableFuture<Void>> written = new CopyOnWriteArrayList<>();
+        try (WriteBehindBuffer<Testobject> buffer = Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .writeBehind(db, 5, Duration.ofMillis(20), 8)) {
+            CompletableFuture.allOf(IntStream.range(0, 4)
+                    .mapToObj((producer) -> CompletableFuture.runAsync(() -> IntStream.range(0, 10)
+                            .mapToObj((i) -> getTestobjectWithId(producer + "-" + i))
+                            .forEach((object) -> written.add(buffer.add(object))), producers))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+
+            CompletableFuture.allOf(written.toArray(new CompletableFuture[0])).join();
+        } finally {
+            producers.shutdown();
+        }
+
+        long count = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+        assertThat(count).isEqualTo(40);
+    }
+
+    @Test
+    public void write_behind_buffer_flushes_on_close_and_fails_rows_of_failed_batches() {
+        db.useHandle(handle -> getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute());
+
+        WriteBehindBuffer<Testobject> buffer = Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .writeBehind(db, 100, Duration.ofSeconds(10), 100);
+        CompletableFuture<Void> duplicate = buffer.add(getTestobjectWithId("001"));
+        CompletableFuture<Void> other = buffer.add(getTestobjectWithId("002"));
+        buffer.close();
+
+        assertThat(duplicate).isCompletedExceptionally();
+        assertThat(other).isCompletedExceptionally();
+        assertThat(Try.of(() -> buffer.add(getTestobjectWithId("003"))).isFailure()).isTrue();
+
+        WriteBehindBuffer<Testobject> retry = Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .writeBehind(db, 100, Duration.ofSeconds(10), 100);
+        CompletableFuture<Void> written = retry.add(getTestobjectWithId("002"));
+        retry.close();
+
+        assertThat(written).isCompleted().isNotCompletedExceptionally();
+    }
+
+    @Test
+    public void write_behind_buffer_rejects_commit_every_and_releases_itself_on_close() {
+        Try<WriteBehindBuffer<Testobject>> rejected = Try.of(() -> Testobject.getInsertBatchQuery(null, TESTTABLE1)
+                .commitEvery(2)
+                .writeBehind(db));
+
+        WriteBehindBuffer<Testobject> buffer = Testobject.getInsertBatchQuery(null, TESTTABLE1).writeBehind(db);
+        assertThat(WriteBehindBuffer.open).contains(buffer);
+        buffer.close();
+
+        assertThat(rejected.getCause()).isInstanceOf(SqlUtilsException.class).hasMessageContaining("commitEvery");
+        assertThat(WriteBehindBuffer.open).doesNotContain(buffer);
+    }
+
+    @Test
+    public void write_behind_buffer_fails_queued_rows_when_the_flusher_stops() throws InterruptedException {
+        CountDownLatch queued = new CountDownLatch(1);
+        WriteBehindBuffer<Testobject> buffer = new InsertBatchQuery<Testobject>(null, TESTTABLE1)
+                .add(ID, Testobject::getId)
+                .add(NAVN, (object) -> {
+                    if ("002".equals(object.getId())) {
+                        Try.run(queued::await);
+                        throw new Error("broken row");
+                    }
+                    return object.getNavn();
+                })
+                .writeBehind(db, 1, Duration.ofSeconds(10), 10);
+
+        CompletableFuture<Void> written = buffer.add(getTestobjectWithId("001"));
+        CompletableFuture<Void> broken = buffer.add(getTestobjectWithId("002"));
+        CompletableFuture<Void> waiting = buffer.add(getTestobjectWithId("003"));
+        queued.countDown();
+
+        assertThat(Try.of(broken::join).getCause()).hasCauseInstanceOf(Error.class);
+        assertThat(Try.of(waiting::join).getCause()).hasCauseInstanceOf(Error.class);
+        assertThat(written).isCompleted().isNotCompletedExceptionally();
+        assertThat(Try.of(() -> buffer.add(getTestobjectWithId("004"))).getCause()).hasCauseInstanceOf(Error.class);
+        buffer.close();
+    }
+
+    @Test
+    public void delete_query() {
+        Tuple2<Testobject, Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("007").toInsertQuery(handle, TESTTABLE1).execute();
+            Testobject retrieved1 = Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.equals(ID, "007")).execute().getOrElse((Testobject) null);
+
+            SqlUtils.delete(handle, TESTTABLE1).where(WhereClause.equals(ID, "007")).execute();
+
+            Testobject retrieved2 = Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.equals(ID, "007")).execute().getOrElse((Testobject) null);
+            return Tuple.of(retrieved1, retrieved2);
+        });
+
+        assertThat(retrieved._1).isNotNull();
+        assertThat(retrieved._2).isNull();
+    }
+
+    @Test
+    public void batch_insert_and_select() {
+        List<Testobject> objects = new ArrayList<>();
+        objects.add(getTestobjectWithId("001"));
+        objects.add(getTestobjectWithId("002"));
+        objects.add(getTestobjectWithId("003"));
+        objects.add(getTestobjectWithId("004"));
+        objects.add(getTestobjectWithId("005"));
+        objects.add(getTestobjectWithId("006"));
+        objects.add(getTestobjectWithId("007"));
+
+        List<Testobject> retrieved = db.withHandle(handle -> {
+
+            Testobject.getInsertBatchQuery(handle, TESTTABLE1)
+                    .execute(objects);
+
+            return SqlUtils.select(handle, TESTTABLE1, Testobject::mapper)
+                    .column(ID)
+                    .column(NAVN)
+                    .column(BIRTHDAY)
+                    .column(DEAD)
+                    .column(NUMBER_OF_PETS)
+                    .where(WhereClause.in(ID, asList("001", "002", "003", "004", "005", "006", "007")))
+                    .executeToList();
+        });
+
+        Assertions.assertThat(retrieved).isEqualTo(objects);
+    }
+
+    @Test
+    public void left_join_on() {
+        Testobject retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("007").toInsertQuery(handle, TESTTABLE1).execute();
+            handle.createUpdate("INSERT INTO TESTTABLE2 (ID, ADDRESS) VALUES ('007', 'andeby')").execute();
+
+            return Testobject
+                    .getSelectWithAddressQuery(handle, TESTTABLE1)
+                    .leftJoinOn(TESTTABLE2, ID, ID)
+                    .where(WhereClause.equals(ID, "007"))
+                    .execute();
+        }).get();
+
+        assertThat(retrieved.getAddress()).isEqualTo("andeby");
+    }
+
+    @Test
+    public void select_with_same_shape_and_different_values() {
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+
+            List<Testobject> result = new ArrayList<>();
+            result.add(Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.equals(ID, "001")).execute().get());
+            result.add(Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.equals(ID, "002")).execute().get());
+            return result;
+        });
+
+        assertThat(retrieved.stream().map(Testobject::getId).collect(Collectors.toList())).containsExactly("001", "002");
+    }
+
+    @Test
+    public void compiled_templates_can_run_on_any_handle() {
+        StatementTemplate insert = SqlUtils.insert(TESTTABLE1)
+                .value(ID, Param.named("id"))
+                .value(NAVN, Param.named("navn"))
+                .value(DEAD, false)
+                .compile();
+        StatementTemplate rename = SqlUtils.update(TESTTABLE1)
+                .set(NAVN, Param.at(1))
+                .whereEquals(ID, Param.at(0))
+                .compile();
+        StatementTemplate delete = SqlUtils.delete(TESTTABLE1)
+                .where(WhereClause.equals(ID, Param.at(0)))
+                .compile();
+        SelectTemplate<Testobject> select = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.in(ID, asList(Param.at(0), Param.at(1))))
+                .orderBy(OrderByExpression.asc(ID))
+                .compile();
+
+        db.useHandle(handle -> {
+            Map<String, Object> values = new HashMap<>();
+            values.put("id", "001");
+            values.put("navn", "navn 1");
+            insert.execute(handle, values);
+            values.put("id", "002");
+            values.put("navn", "navn 2");
+            insert.execute(handle, values);
+            values.put("id", "003");
+            insert.execute(handle, values);
+        });
+        db.useHandle(handle -> {
+            rename.execute(handle, "002", "nytt navn");
+            delete.execute(handle, "003");
+        });
+
+        List<Testobject> retrieved = db.withHandle(handle -> select.executeToList(handle, "001", "002"));
+
+        assertThat(retrieved.stream().map(Testobject::getNavn).collect(Collectors.toList())).containsExactly("navn 1", "nytt navn");
+        assertThat(db.withHandle(handle -> select.execute(handle, "003", "003")).isEmpty()).isTrue();
+    }
+
+    @Test(expected = SqlUtilsException.class)
+    public void query_without_handle_must_be_compiled() {
+        SqlUtils.delete(TESTTABLE1).where(WhereClause.equals(ID, "001")).execute();
+    }
+
+    @Test
+    public void select_all() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute();
+            return Testobject.getSelectQuery(handle, TESTTABLE1).executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+    }
+
+    @Test
+    public void select_as_stream() {
+        List<String> ids = db.withHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute();
+
+            try (Stream<Testobject> stream = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc(ID))
+                    .fetchSize(2)
+                    .executeToStream()) {
+                return stream.map(Testobject::getId).collect(Collectors.toList());
+            }
+        });
+
+        assertThat(ids).containsExactly("001", "002", "003");
+    }
+
+    @Test
+    public void select_for_each() {
+        List<String> ids = new ArrayList<>();
+        db.useHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+
+            Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.desc(ID))
+                    .fetchSize(1)
+                    .forEach(object -> ids.add(object.getId()));
+        });
+
+        assertThat(ids).containsExactly("002", "001");
+    }
+
+    @Test
+    public void partitioned_scan_by_range() {
+        db.useHandle(handle -> {
+            for (int i = 0; i < 20; i++) {
+                getTestobjectWithId(String.format("%03d", i)).setNumberOfPets(i * 3).toInsertQuery(handle, TESTTABLE1).execute();
+            }
+        });
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.gteq(NUMBER_OF_PETS, 6))
+                .partitionedScan(db)
+                .byRange(NUMBER_OF_PETS, 4)
+                .forEach(object -> assertThat(ids.add(object.getId())).isTrue());
+
+        assertThat(ids).hasSize(18);
+    }
+
+    @Test
+    public void partitioned_scan_by_range_of_extreme_values() {
+        List<Long> values = asList(Long.MIN_VALUE, Long.MIN_VALUE + 1, -1L, 0L, 1L, Long.MAX_VALUE - 1, Long.MAX_VALUE);
+        db.useHandle(handle -> {
+            for (int i = 0; i < values.size(); i++) {
+                SqlUtils.insert(handle, TESTTABLE1)
+                        .value(ID, String.valueOf(i))
+                        .value(NAVN, "navn")
+                        .value(NUMBER_OF_PETS, values.get(i))
+                        .execute();
+            }
+        });
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        SqlUtils.select(TESTTABLE1, rs -> rs.getString(ID))
+                .column(ID)
+                .partitionedScan(db)
+                .byRange(NUMBER_OF_PETS, 3)
+                .forEach(id -> assertThat(ids.add(id)).isTrue());
+
+        assertThat(ids).hasSize(values.size());
+        assertThat(PartitionedScan.rangeBounds(Long.MIN_VALUE, Long.MAX_VALUE, 4))
+                .containsExactly(Long.MIN_VALUE, Long.MIN_VALUE / 2, 0L, Long.MAX_VALUE / 2 + 1, Long.MAX_VALUE);
+        assertThat(PartitionedScan.rangeBounds(5, 6, 4)).containsExactly(5L, 6L, 6L);
+    }
+
+    @Test(expected = SqlUtilsException.class)
+    public void partitioned_scan_rejects_limit() {
+        Testobject.getSelectQuery(null, TESTTABLE1)
+                .limit(10)
+                .partitionedScan(db)
+                .byRange(NUMBER_OF_PETS, 4)
+                .forEach(object -> {});
+    }
+
+    @Test
+    public void partitioned_scan_by_hash() {
+        Assume.assumeFalse("hsqldb does not support the modulo-operator", SqlUtils.db == SqlUtils.DbSupport.MSSQL);
+        db.useHandle(handle -> {
+            for (int i = 0; i < 20; i++) {
+                getTestobjectWithId(String.format("%03d", i)).setNumberOfPets(i).toInsertQuery(handle, TESTTABLE1).execute();
+            }
+        });
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Testobject.getSelectQuery(null, TESTTABLE1)
+                .partitionedScan(db)
+                .byHash(NUMBER_OF_PETS, 3)
+                .executor(executor)
+                .forEach(object -> assertThat(ids.add(object.getId())).isTrue());
+        executor.shutdown();
+
+        assertThat(ids).hasSize(20);
+    }
+
+    @Test
+    public void async_execution() {
+        List<Testobject> objects = asList(getTestobjectWithId("001"), getTestobjectWithId("002"), getTestobjectWithId("003"));
+
+        Testobject.getInsertBatchQuery(null, TESTTABLE1).executeAsync(db, objects).join();
+        CompletableFuture<Integer> update = SqlUtils.update(TESTTABLE1)
+                .set(NAVN, "oppdatert navn")
+                .whereEquals(ID, "001")
+                .executeAsync(db);
+        CompletableFuture<Integer> delete = SqlUtils.delete(TESTTABLE1)
+                .where(WhereClause.equals(ID, "003"))
+                .executeAsync(db);
+        CompletableFuture.allOf(update, delete).join();
+
+        CompletableFuture<List<Testobject>> all = Testobject.getSelectQuery(null, TESTTABLE1)
+                .orderBy(OrderByExpression.asc(ID))
+                .executeToListAsync(db);
+        CompletableFuture<Option<Testobject>> first = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.equals(ID, "001"))
+                .executeAsync(db);
+
+        assertThat(all.join().stream().map(Testobject::getId).collect(Collectors.toList())).containsExactly("001", "002");
+        assertThat(first.join().get().getNavn()).isEqualTo("oppdatert navn");
+        assertThat(update.join()).isEqualTo(1);
+    }
+
+    @Test
+    public void async_select_uses_cache_and_chunking() {
+        QueryCache cache = new QueryCache(100, Duration.ofMinutes(1));
+        db.useHandle(handle -> IntStream.rangeClosed(1, 10)
+                .forEach((i) -> getTestobjectWithId(String.format("%03d", i)).setNumberOfPets(i).toInsertQuery(handle, TESTTABLE1).execute()));
+        List<String> ids = IntStream.rangeClosed(1, 10).mapToObj((i) -> String.format("%03d", i)).collect(Collectors.toList());
+
+        Supplier<CompletableFuture<List<Testobject>>> select = () -> Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.in(ID, ids))
+                .orderBy(OrderByExpression.asc(NUMBER_OF_PETS))
+                .maxInSize(3)
+                .cached(cache)
+                .executeToListAsync(db);
+        CompletableFuture<Option<Testobject>> none = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.in(ID, asList()))
+                .executeAsync(db);
+
+        assertThat(select.get().join().stream().map(Testobject::getId).collect(Collectors.toList())).isEqualTo(ids);
+        assertThat(none.join().isEmpty()).isTrue();
+
+        Testobject single = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.equals(ID, "001"))
+                .cached(cache)
+                .executeAsync(db)
+                .join()
+                .get();
+        Testobject cached = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.equals(ID, "001"))
+                .cached(cache)
+                .executeAsync(db)
+                .join()
+                .get();
+
+        assertThat(cached).isSameAs(single);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void async_delete_is_chunked_and_short_circuited() {
+        List<String> ids = IntStream.rangeClosed(1, 10).mapToObj((i) -> String.format("%03d", i)).collect(Collectors.toList());
+        db.useHandle(handle -> ids.forEach((id) -> getTestobjectWithId(id).toInsertQuery(handle, TESTTABLE1).execute()));
+        List<String> statements = new CopyOnWriteArrayList<>();
+        db.setTimingCollector((elapsed, ctx) -> statements.add(ctx.getRenderedSql()));
+
+        int deleted = SqlUtils.delete(TESTTABLE1)
+                .where(WhereClause.in(ID, ids))
+                .maxInSize(3)
+                .executeAsync(db)
+                .join();
+        int none = SqlUtils.delete(TESTTABLE1)
+                .where(WhereClause.in(ID, asList()))
+                .executeAsync(db)
+                .join();
+
+        assertThat(deleted).isEqualTo(10);
+        assertThat(none).isEqualTo(0);
+        assertThat(statements).hasSize(4).allMatch((sql) -> sql.startsWith("DELETE"));
+    }
+
+    @Test
+    public void async_transactions() {
+        DummyRepository repo = new DummyRepository(db);
+
+        Integer inserted = SqlUtils.transactionalAsync(() -> repo.insert(getTestobjectWithId("001")) + repo.insert(getTestobjectWithId("002"))).join();
+
+        assertThat(inserted).isEqualTo(2);
+        assertThat(repo.getAll()).hasSize(2);
+    }
+
+    @Test
+    public void cancelled_async_execution_is_not_run() {
+        CompletableFuture<Integer> insert = getTestobjectWithId("001")
+                .toInsertQuery(null, TESTTABLE1)
+                .executeAsync(db, (runnable) -> {});
+        insert.cancel(true);
+
+        assertThat(insert.isCancelled()).isTrue();
+        assertThat(new DummyRepository(db).getAll()).isEmpty();
+    }
+
+    @Test
+    public void publisher_emits_rows_on_demand() {
+        db.useHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute();
+        });
+
+        List<String> ids = new ArrayList<>();
+        CompletableFuture<List<String>> done = new CompletableFuture<>();
+        Testobject.getSelectQuery(null, TESTTABLE1)
+                .orderBy(OrderByExpression.asc(ID))
+                .publisher(db)
+                .subscribe(new ResultPublisher.Subscriber<Testobject>() {
+                    ResultPublisher.Subscription subscription;
+
+                    public void onSubscribe(ResultPublisher.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(1);
+                    }
+
+                    public void onNext(Testobject item) {
+                        ids.add(item.getId());
+                        subscription.request(1);
+                    }
+
+                    public void onError(Throwable throwable) {
+                        done.completeExceptionally(throwable);
+                    }
+
+                    public void onComplete() {
+                        done.complete(ids);
+                    }
+                });
+
+        assertThat(done.join()).containsExactly("001", "002", "003");
+    }
+
+    @Test
+    public void publisher_stops_on_cancel() throws InterruptedException {
+        db.useHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+        });
+
+        List<String> ids = new CopyOnWriteArrayList<>();
+        CountDownLatch received = new CountDownLatch(1);
+        Testobject.getSelectQuery(null, TESTTABLE1)
+                .publisher(db, Runnable::run)
+                .subscribe(new ResultPublisher.Subscriber<Testobject>() {
+                    ResultPublisher.Subscription subscription;
+
+                    public void onSubscribe(ResultPublisher.Subscription subscription) {
+                        this.subscription = subscription;
+                        subscription.request(Long.MAX_VALUE);
+                    }
+
+                    public void onNext(Testobject item) {
+                        ids.add(item.getId());
+                        subscription.cancel();
+                        received.countDown();
+                    }
+
+                    public void onError(Throwable throwable) {
+                        ids.add("error");
+                    }
+
+                    public void onComplete() {
+                        ids.add("complete");
+                    }
+                });
+
+        received.await();
+        assertThat(ids).hasSize(1);
+    }
+
+    @Test
+    public void cached_select_is_invalidated_by_writes() {
+        QueryCache cache = new QueryCache(100, Duration.ofMinutes(1));
+        DummyRepository repo = new DummyRepository(db);
+
+        Supplier<List<Testobject>> select = () -> db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .cached(cache)
+                .executeToList());
+
+        repo.insert(getTestobjectWithId("001"));
+        assertThat(select.get()).hasSize(1);
+        db.useHandle(handle -> handle.execute("DELETE FROM TESTTABLE1"));
+        assertThat(select.get()).hasSize(1);
+
+        repo.insert(getTestobjectWithId("002"));
+        assertThat(select.get()).hasSize(1);
+
+        SqlUtils.transactional(() -> {
+            repo.insert(getTestobjectWithId("003"));
+            assertThat(select.get()).hasSize(1);
+        });
+        assertThat(select.get()).hasSize(2);
+        assertThat(cache.getStats().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    public void cached_select_is_invalidated_when_jdbi_transaction_ends() {
+        QueryCache cache = new QueryCache(100, Duration.ofMinutes(1));
+        db.setTransactionHandler(new CacheInvalidatingTransactionHandler(db.getTransactionHandler()));
+        Function<Handle, List<Testobject>> select = (handle) -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .cached(cache)
+                .executeToList();
+
+        List<Testobject> uncommitted = db.withHandle(handle -> {
+            handle.begin();
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            List<Testobject> rows = select.apply(handle);
+            handle.rollback();
+            return rows;
+        });
+        Try<Void> failed = Try.run(() -> db.useTransaction(handle -> {
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+            assertThat(select.apply(handle)).hasSize(1);
+            throw new IllegalStateException("rolled back");
+        }));
+
+        assertThat(uncommitted).hasSize(1);
+        assertThat(failed.isFailure()).isTrue();
+        assertThat(db.withHandle(select::apply)).isEmpty();
+    }
+
+    @Test
+    public void count_and_exists() {
+        Tuple2<Long, Boolean> all = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+
+            SelectQuery<Testobject> query = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc(ID))
+                    .limit(1);
+            return Tuple.of(query.executeCount(), query.executeExists());
+        });
+        Tuple2<Long, Boolean> none = db.withHandle(handle -> {
+            SelectQuery<Testobject> query = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.gt(NUMBER_OF_PETS, 2));
+            return Tuple.of(query.executeCount(), query.executeExists());
+        });
+        long groups = db.withHandle(handle -> SqlUtils.select(handle, TESTTABLE1, TestUtils::dump)
+                .column(NUMBER_OF_PETS)
+                .groupBy(NUMBER_OF_PETS)
+                .executeCount());
+
+        assertThat(all).isEqualTo(Tuple.of(3L, true));
+        assertThat(none).isEqualTo(Tuple.of(0L, false));
+        assertThat(groups).isEqualTo(2L);
+    }
+
+    @Test
+    public void huge_in_lists_are_executed_in_chunks() {
+        List<String> ids = IntStream.rangeClosed(1, 20).mapToObj((i) -> String.format("%03d", i)).collect(Collectors.toList());
+        List<String> wanted = new ArrayList<>(ids.subList(2, 17));
+        wanted.add("003");
+        wanted.add("999");
+
+        List<Integer> pets = IntStream.rangeClosed(1, 20).boxed().collect(Collectors.toList());
+
+        db.useHandle(handle -> ids.forEach((id) -> getTestobjectWithId(id)
+                .setNumberOfPets(Integer.parseInt(id))
+                .toInsertQuery(handle, TESTTABLE1)
+                .execute()));
+        Function<Handle, SelectQuery<Testobject>> query = (handle) -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .where(WhereClause.in(ID, wanted).and(WhereClause.in(NUMBER_OF_PETS, pets)))
+                .orderBy(OrderByExpression.desc(NUMBER_OF_PETS))
+                .limit(2, 6);
+
+        List<String> expected = db.withHandle(handle -> query.apply(handle).executeToList())
+                .stream().map(Testobject::getId).collect(Collectors.toList());
+        List<String> sequential = db.withHandle(handle -> query.apply(handle).maxInSize(4).executeToList())
+                .stream().map(Testobject::getId).collect(Collectors.toList());
+        List<String> parallel = query.apply(null).maxInSize(4).parallelChunks(db).executeToList()
+                .stream().map(Testobject::getId).collect(Collectors.toList());
+        Tuple2<Long, Boolean> countAndExists = db.withHandle(handle -> {
+            SelectQuery<Testobject> chunked = query.apply(handle).maxInSize(4);
+            return Tuple.of(chunked.executeCount(), chunked.executeExists());
+        });
+        int deleted = db.withHandle(handle -> SqlUtils.delete(handle, TESTTABLE1)
+                .where(WhereClause.in(ID, wanted))
+                .maxInSize(4)
+                .execute());
+
+        assertThat(expected).containsExactly("015", "014", "013", "012", "011", "010");
+        assertThat(sequential).isEqualTo(expected);
+        assertThat(parallel).isEqualTo(expected);
+        assertThat(countAndExists).isEqualTo(Tuple.of(15L, true));
+        assertThat(deleted).isEqualTo(15);
+    }
+
+    @Test
+    public void chunked_delete_is_part_of_the_callers_transaction() {
+        List<String> ids = IntStream.rangeClosed(1, 10).mapToObj((i) -> String.format("%03d", i)).collect(Collectors.toList());
+        db.useHandle(handle -> ids.forEach((id) -> getTestobjectWithId(id).toInsertQuery(handle, TESTTABLE1).execute()));
+
+        AtomicReference<Integer> deleted = new AtomicReference<>();
+        Try<Integer> result = Try.of(() -> db.inTransaction(handle -> {
+            deleted.set(SqlUtils.delete(handle, TESTTABLE1)
+                    .where(WhereClause.in(ID, ids))
+                    .maxInSize(3)
+                    .parallelChunks(db)
+                    .execute());
+            throw new IllegalStateException("rolled back");
+        }));
+        long rows = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1).executeCount());
+
+        assertThat(result.getCause()).hasMessage("rolled back");
+        assertThat(deleted.get()).isEqualTo(10);
+        assertThat(rows).isEqualTo(10);
+    }
+
+    @Test
+    public void deeply_nested_where_clause() {
+        WhereClause nested = WhereClause.equals(ID, "001");
+        for (int i = 1; i < 10000; i++) {
+            WhereClause term = WhereClause.equals(NUMBER_OF_PETS, i);
+            nested = i % 2 == 0 ? term.and(nested) : term.or(nested);
+        }
+
+        SelectTemplate<Testobject> template = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(nested)
+                .compile();
+
+        assertThat(template.getSql()).contains("WHERE (NUMBER_OF_PETS = ?) OR ((NUMBER_OF_PETS = ?) AND (");
+    }
+
+    @Test
+    public void chunks_which_cannot_be_merged_are_executed_as_one_statement() {
+        db.useHandle(handle -> IntStream.rangeClosed(1, 6)
+                .forEach((i) -> getTestobjectWithId(String.format("%03d", i)).setNavn("navn " + (7 - i)).toInsertQuery(handle, TESTTABLE1).execute()));
+
+        List<String> ids = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .where(WhereClause.in(ID, asList("001", "002", "003", "004", "005", "006")))
+                .orderBy(OrderByExpression.asc(NAVN))
+                .maxInSize(4)
+                .executeToList())
+                .stream().map(Testobject::getId).collect(Collectors.toList());
+
+        assertThat(ids).containsExactly("006", "005", "004", "003", "002", "001");
+    }
+
+    @Test
+    public void chunks_are_merged_by_expressions_and_mapped_records() {
+        db.useHandle(handle -> IntStream.rangeClosed(1, 6)
+                .forEach((i) -> getTestobjectWithId(String.format("%03d", i)).setNumberOfPets(i).toInsertQuery(handle, TESTTABLE1).execute()));
+
+        List<NameRecord> records = db.withHandle(handle -> SqlUtils.select(handle, TESTTABLE1, NameRecord.class)
+                .where(WhereClause.in(ID, asList("001", "002", "003", "004", "005", "006")))
+                .orderBy(OrderByExpression.asc("0 - " + NUMBER_OF_PETS))
+                .maxInSize(4)
+                .executeToList());
+
+        assertThat(records.stream().map((record) -> record.getId().value).collect(Collectors.toList()))
+                .containsExactly("006", "005", "004", "003", "002", "001");
+    }
+
+    @Test
+    public void where_in_array() {
+        SqlUtils.DbSupport dialect = SqlUtils.db;
+        SqlUtils.db = SqlUtils.DbSupport.UNKNOWN; // hsqldb supports UNNEST, but neither TABLE nor OPENJSON
+        try {
+            List<String> ids = db.withHandle(handle -> {
+                getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+                getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+                getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute();
+
+                return Testobject.getSelectQuery(handle, TESTTABLE1)
+                        .where(WhereClause.inArray(ID, asList("001", "003", "004")))
+                        .orderBy(OrderByExpression.asc(ID))
+                        .executeToList();
+            }).stream().map(Testobject::getId).collect(Collectors.toList());
+
+            assertThat(ids).containsExactly("001", "003");
+        } finally {
+            SqlUtils.db = dialect;
+        }
+    }
+
+    @Test
+    public void select_med_rename() {
+        List<Map<String, Object>> result = db.withHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+
+            return SqlUtils.select(handle, TESTTABLE1, TestUtils::dump)
+                    .column(DbTest.ID)
+                    .column(DbTest.BIRTHDAY)
+                    .column(SqlFragment.fromString(DbTest.BIRTHDAY).as("STARTOFLIFE"))
+                    .executeToList();
+        });
+
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).get(DbTest.ID)).isEqualTo("001");
+        assertThat(result.get(0).get("STARTOFLIFE")).isEqualTo(result.get(0).get(DbTest.BIRTHDAY));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void select_case_when() {
+        List<Map<String, Object>> result = db.withHandle(handle -> {
+            getTestobjectWithId("001").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").toInsertQuery(handle, TESTTABLE1).execute();
+
+            return SqlUtils.select(handle, TESTTABLE1, TestUtils::dump)
+                    .column(DbTest.BIRTHDAY)
+                    .column(DbTest.DEAD)
+                    .column(DbTest.ID)
+                    .column(DbTest.NAVN)
+                    .column(DbTest.NUMBER_OF_PETS)
+                    .column(CaseClause.of(
+                            when(WhereClause.like(DbTest.ID, "%1"), Int(3)),
+                            when(WhereClause.like(DbTest.ID, "%2"), Int(2)),
+                            when(WhereClause.like(DbTest.ID, "%3"), Int(1)),
+                            orElse(Int(0))
+                    ).as("matchScore"))
+                    .orderBy(OrderByExpression.asc("matchScore"))
+                    .executeToList();
+        });
+
+        assertThat(result).hasSize(3);
+        assertThat(result.get(0).get(DbTest.ID)).isEqualTo("003");
+        assertThat(result.get(1).get(DbTest.ID)).isEqualTo("002");
+        assertThat(result.get(2).get(DbTest.ID)).isEqualTo("001");
+    }
+
+    @Test
+    public void order_by_desc() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(0).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(5).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(10).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.desc("NUMBER_OF_PETS"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(10);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+    }
+
+    @Test
+    public void order_by_multiple_desc_chained() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(10).setBirthday(new Timestamp(0)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(0).setBirthday(new Timestamp(20)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(10).setBirthday(new Timestamp(10)).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.desc("NUMBER_OF_PETS"))
+                    .orderBy(OrderByExpression.desc("BIRTHDAY"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(10);
+        assertThat(testobjects.get(0).birthday).isEqualTo(new Timestamp(10));
+        assertThat(testobjects.get(1).id).isEqualTo("001");
+        assertThat(testobjects.get(1).numberOfPets).isEqualTo(10);
+        assertThat(testobjects.get(1).birthday).isEqualTo(new Timestamp(0));
+    }
+
+    @Test
+    public void order_by_asc() {
+        final List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(10).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(5).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(0).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc("NUMBER_OF_PETS"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(0);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+    }
+
+    @Test
+    public void order_by_multiple_asc_chained() {
+        final List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(0).setBirthday(new Timestamp(20)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(10).setBirthday(new Timestamp(0)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(0).setBirthday(new Timestamp(10)).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc("NUMBER_OF_PETS"))
+                    .orderBy(OrderByExpression.asc("BIRTHDAY"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(0);
+        assertThat(testobjects.get(0).birthday).isEqualTo(new Timestamp(10));
+        assertThat(testobjects.get(1).id).isEqualTo("001");
+        assertThat(testobjects.get(1).numberOfPets).isEqualTo(0);
+        assertThat(testobjects.get(1).birthday).isEqualTo(new Timestamp(20));
+    }
+
+    @Test
+    public void order_byMultiple_asc_and_desc_chained() {
+        final List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(0).setBirthday(new Timestamp(10)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(10).setBirthday(new Timestamp(0)).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(0).setBirthday(new Timestamp(20)).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc("NUMBER_OF_PETS"))
+                    .orderBy(OrderByExpression.desc("BIRTHDAY"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(0);
+        assertThat(testobjects.get(0).birthday).isEqualTo(new Timestamp(20));
+        assertThat(testobjects.get(1).id).isEqualTo("001");
+        assertThat(testobjects.get(1).numberOfPets).isEqualTo(0);
+        assertThat(testobjects.get(1).birthday).isEqualTo(new Timestamp(10));
+    }
+
+    @Test
+    public void order_and_where() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("001").setDead(true).setNumberOfPets(0).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setDead(true).setNumberOfPets(5).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(10).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setNumberOfPets(20).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("005").setNumberOfPets(25).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.equals("DEAD", true))
+                    .orderBy(OrderByExpression.desc("NUMBER_OF_PETS"))
+                    .executeToList();
+        });
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(testobjects.get(0).numberOfPets).isEqualTo(10);
+        assertThat(testobjects.get(0).id).isEqualTo("003");
+    }
+
+    @Test
+    public void where_is_not_null() {
+        Tuple2<List<Testobject>, List<Testobject>> result = db.withHandle(handle -> {
+            getTestobjectWithId("007").setBirthday(null).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("006").toInsertQuery(handle, TESTTABLE1).execute();
+
+            List<Testobject> birthdayNotNull = Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.isNotNull(BIRTHDAY)).executeToList();
+            List<Testobject> birthdayNull = Testobject.getSelectQuery(handle, TESTTABLE1).where(WhereClause.isNull(BIRTHDAY)).executeToList();
+            return Tuple.of(birthdayNotNull, birthdayNull);
+        });
+
+        assertThat(result._1).hasSize(1);
+        assertThat(result._2).hasSize(1);
+
+        assertThat(result._1.get(0).getBirthday()).isNotNull();
+        assertThat(result._2.get(0).getBirthday()).isNull();
+    }
+
+    @Test
+    public void where_is_allways_true() {
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject
+                    .getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.alwaysTrue())
+                    .executeToList();
+        });
+
+        assertThat(retrieved).hasSize(2);
+    }
+
+    @Test
+    public void where_is_allways_false() {
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject
+                    .getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.alwaysFalse())
+                    .executeToList();
+        });
+
+        assertThat(retrieved).hasSize(0);
+    }
+
+    @Test
+    public void always_false_queries_are_not_executed() {
+        SelectQuery<Testobject> query = Testobject.getSelectQuery(null, TESTTABLE1)
+                .where(WhereClause.equals(ID, "001").and(WhereClause.in(NAVN, new ArrayList<>())));
+
+        assertThat(query.executeToList()).isEmpty();
+        assertThat(query.execute().isEmpty()).isTrue();
+        assertThat(query.executeCount()).isEqualTo(0L);
+        assertThat(query.executeExists()).isFalse();
+        assertThat(SqlUtils.delete(null, TESTTABLE1).where(WhereClause.alwaysFalse()).execute()).isEqualTo(0);
+    }
+
+    @Test
+    public void wherelike_skal_stotte_wildcards(){
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject
+                    .getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.like("id", "%0_"))
+                    .executeToList();
+        });
+
+        assertThat(retrieved).hasSize(2);
+    }
+
+    @Test
+    public void wherelike_skal_ikke_stotte_sqlinjections(){
+        List<Testobject> retrieved = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject
+                    .getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.like("id", "%0_'; DROP TABLE TESTTABLE1; '"))
+                    .executeToList();
+        });
+
+        assertThat(retrieved).hasSize(0);
+    }
+
+
+
+    @Test
+    public void limit() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("009").setDead(true).setNumberOfPets(8).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("007").setDead(true).setNumberOfPets(6).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setDead(true).setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("008").setDead(true).setNumberOfPets(7).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("001").setDead(true).setNumberOfPets(0).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("006").setDead(true).setNumberOfPets(5).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("005").setDead(true).setNumberOfPets(4).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc(NUMBER_OF_PETS))
+                    .limit(5)
+                    .executeToList();
+        });
+
+        assertThat(testobjects.stream()
+                .map(Testobject::getNumberOfPets).collect(Collectors.toList())).isEqualTo(asList(0, 1, 2, 3, 4));
+    }
+
+    @Test
+    public void limit_with_offset() {
+        List<Testobject> testobjects = db.withHandle(handle -> {
+            getTestobjectWithId("003").setDead(true).setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("009").setDead(true).setNumberOfPets(8).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("007").setDead(true).setNumberOfPets(6).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setDead(true).setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("008").setDead(true).setNumberOfPets(7).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("001").setDead(true).setNumberOfPets(0).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("006").setDead(true).setNumberOfPets(5).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("005").setDead(true).setNumberOfPets(4).toInsertQuery(handle, TESTTABLE1).execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .orderBy(OrderByExpression.asc(NUMBER_OF_PETS))
+                    .limit(2, 5)
+                    .executeToList();
+        });
+
+        assertThat(testobjects.stream()
+                .map(Testobject::getNumberOfPets).collect(Collectors.toList())).isEqualTo(asList(2, 3, 4, 5, 6));
+    }
+
+    @Test
+    public void keyset_pagination() {
+        List<List<String>> pages = db.withHandle(handle -> {
+            getTestobjectWithId("001").setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("002").setNumberOfPets(1).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("003").setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("004").setNumberOfPets(2).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("005").setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+            getTestobjectWithId("006").setDead(true).setNumberOfPets(3).toInsertQuery(handle, TESTTABLE1).execute();
+
+            List<List<String>> result = new ArrayList<>();
+            List<Testobject> page = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.equals(DEAD, false))
+                    .orderBy(OrderByExpression.desc(NUMBER_OF_PETS))
+                    .orderBy(OrderByExpression.asc(ID))
+                    .limit(2)
+                    .executeToList();
+
+            while (!page.isEmpty()) {
+                result.add(page.stream().map(Testobject::getId).collect(Collectors.toList()));
+                Testobject last = page.get(page.size() - 1);
+                page = Testobject.getSelectQuery(handle, TESTTABLE1)
+                        .where(WhereClause.equals(DEAD, false))
+                        .orderBy(OrderByExpression.desc(NUMBER_OF_PETS))
+                        .orderBy(OrderByExpression.asc(ID))
+                        .seekAfter(last.getNumberOfPets(), last.getId())
+                        .limit(2)
+                        .executeToList();
+            }
+            return result;
+        });
+
+        assertThat(pages).containsExactly(asList("005", "003"), asList("004", "001"), asList("002"));
+    }
+
+    @Test(expected = SqlUtilsException.class)
+    public void keyset_pagination_requires_value_per_order_by() {
+        db.useHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .orderBy(OrderByExpression.asc(ID))
+                .seekAfter("001", 2)
+                .executeToList());
+    }
+
+    @Test
+    public void where_comparativ_test() {
+        List<Testobject> objects = new ArrayList<>();
+        objects.add(getTestobjectWithId("001"));
+        objects.add(getTestobjectWithId("002"));
+        objects.add(getTestobjectWithId("003"));
+        objects.add(getTestobjectWithId("004"));
+
+        db.withHandle(handle -> {
+            Testobject.getInsertBatchQuery(handle, TESTTABLE1).execute(objects);
+
+            int greaterThenTwo = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.gt("ID", "002"))
+                    .executeToList()
+                    .size();
+
+            int greaterThenOrEqualTwo = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.gteq("ID", "002"))
+                    .executeToList()
+                    .size();
+
+            int lessThenTwo = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.lt("ID", "002"))
+                    .executeToList()
+                    .size();
+
+            int lessThenOrEqualTwo = Testobject.getSelectQuery(handle, TESTTABLE1)
+                    .where(WhereClause.lteq("ID", "002"))
+                    .executeToList()
+                    .size();
+
+            assertThat(greaterThenTwo).isEqualTo(2);
+            assertThat(greaterThenOrEqualTwo).isEqualTo(3);
+            assertThat(lessThenTwo).isEqualTo(1);
+            assertThat(lessThenOrEqualTwo).isEqualTo(2);
+            return true;
+        });
+    }
+
+    @Test
+    public void group_by_test() {
+        List<Testobject> objects = new ArrayList<>();
+        objects.add(getTestobjectWithId("001"));
+        objects.add(getTestobjectWithId("002"));
+        objects.add(getTestobjectWithId("003"));
+        objects.add(getTestobjectWithId("004"));
+        objects.get(1).dead = true;
+        objects.get(3).dead = true;
+
+        Map<Boolean, Integer> grouped = db.withHandle(handle -> {
+            Testobject.getInsertBatchQuery(handle, TESTTABLE1).execute(objects);
+
+            return SqlUtils.select(handle, TESTTABLE1, (resultset) -> {
+                Map<Boolean, Integer> result = new HashMap<>();
+                do {
+                    boolean dead = resultset.getBoolean("dead");
+                    int nof = resultset.getInt("nof");
+                    result.put(dead, nof);
+                } while (resultset.next());
+                return result;
+            })
+                    .column("dead")
+                    .column("count(*) as nof")
+                    .groupBy("dead")
+                    .execute();
+        }).get();
+
+        assertThat(grouped.get(true)).isEqualTo(2);
+        assertThat(grouped.get(false)).isEqualTo(2);
+    }
+
+    @Test
+    public void insert_current_timestamp() {
+        Testobject object = db.withHandle(handle -> {
+            SqlUtils.insert(handle, TESTTABLE1)
+                    .value(ID, "001")
+                    .value(NAVN, "navn")
+                    .value(BIRTHDAY, DbConstants.CURRENT_TIMESTAMP)
+                    .execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1).execute();
+        }).get();
+
+        assertThat(object.getBirthday()).isNotNull();
+    }
+
+    @Test
+    public void update_current_timestamp() {
+        Timestamp epoch0 = new Timestamp(0);
+        Testobject object = db.withHandle(handle -> {
+            SqlUtils.insert(handle, TESTTABLE1)
+                    .value(ID, "001")
+                    .value(NAVN, "navn")
+                    .value(BIRTHDAY, epoch0)
+                    .execute();
+
+            SqlUtils.update(handle, TESTTABLE1)
+                    .set(BIRTHDAY, DbConstants.CURRENT_TIMESTAMP)
+                    .whereEquals(ID, "001")
+                    .execute();
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1).execute();
+        }).get();
+
+        assertThat(object.getBirthday()).isAfter(new Timestamp(0));
+    }
+
+    @Test
+    public void batch_insert_with_current_timestamp() {
+        List<Testobject> retrievedObjects = db.withHandle(handle -> {
+            InsertBatchQuery<Testobject> insertBatchQuery = new InsertBatchQuery<>(handle, TESTTABLE1);
+            insertBatchQuery
+                    .add(ID, Testobject::getId)
+                    .add(NAVN, Testobject::getNavn)
+                    .add(BIRTHDAY, DbConstants.CURRENT_TIMESTAMP);
+
+            List<Testobject> objects = new ArrayList<>();
+            objects.add(getTestobjectWithId("001"));
+            objects.add(getTestobjectWithId("002"));
+
+            insertBatchQuery.execute(objects);
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1).executeToList();
+        });
+
+        assertThat(retrievedObjects.get(0)).isNotNull();
+        assertThat(retrievedObjects.get(1)).isNotNull();
+    }
+
+    @Test
+    public void batch_update_with_current_timestamp() {
+        List<Testobject> retrievedObjects = db.withHandle(handle -> {
+            InsertBatchQuery<Testobject> insertBatchQuery = new InsertBatchQuery<>(handle, TESTTABLE1);
+            insertBatchQuery
+                    .add(ID, Testobject::getId)
+                    .add(NAVN, Testobject::getNavn)
+                    .add(BIRTHDAY, Testobject::getBirthday);
+
+            List<Testobject> objects = new ArrayList<>();
+            objects.add(getTestobjectWithId("001"));
+            objects.add(getTestobjectWithId("002"));
+
+            insertBatchQuery.execute(objects);
+
+            UpdateBatchQuery<Testobject> updateBatchQuery = new UpdateBatchQuery<>(handle, TESTTABLE1);
+            updateBatchQuery.add(BIRTHDAY, DbConstants.CURRENT_TIMESTAMP);
+
+            List<Testobject> updateobjects = new ArrayList<>();
+            updateobjects.add(getTestobjectWithId("001"));
+            updateobjects.add(getTestobjectWithId("002"));
+
+            updateBatchQuery.execute(updateobjects);
+
+            return Testobject.getSelectQuery(handle, TESTTABLE1).executeToList();
+        });
+
+        assertThat(retrievedObjects.get(0).getBirthday()).isAfter(new Timestamp(0));
+        assertThat(retrievedObjects.get(1).getBirthday()).isAfter(new Timestamp(0));
+    }
+
+    @Test
+    public void skal_wrappe_sprorringer_i_try() {
+        Try<Void> noReturn = Try.of(() -> {
+            SqlUtils.useHandle(db, handle -> { });
+            return null;
+        });
+        Try<Void> noReturnWithError = Try.of(() -> {
+            SqlUtils.useHandle(db, handle -> {
+                SqlUtils.select(handle, "NOTABLE", (rs) -> "").execute();
+            });
+            return null;
+        });
+
+        assertThat(noReturn.isSuccess()).isEqualTo(true);
+        assertThat(noReturnWithError.isSuccess()).isEqualTo(false);
+        assertThat(noReturnWithError.getCause()).isExactlyInstanceOf(SqlUtilsException.class);
+    }
+
+    @Test
+    public void skal_mappe_optional_til_try() {
+        Try<Testobject> not_found = Try.of(() -> SqlUtils.withHandle(db, handle -> Testobject
+                .getSelectQuery(handle, TESTTABLE1)
+                .execute()
+                .getOrElseThrow(() -> new RuntimeException("Not found"))
+        ));
+
+        assertThat(not_found.isFailure()).isTrue();
+    }
+
+    @Test
+    public void skal_gjennomfore_alle_sql_sporringer() {
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+        Testobject object3 = getTestobjectWithId("003");
+
+        List<Testobject> transactional = SqlUtils.transactional(() -> {
+            lagInsertHandler(db, object1);
+            lagInsertHandler(db, object2);
+            lagInsertHandler(db, object3);
+            return SqlUtils.withHandle(db, (handle) -> Testobject.getSelectQuery(handle, TESTTABLE1).executeToList());
+        });
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(transactional).hasSize(3);
+        assertThat(testobjects).hasSize(3);
+    }
+
+    @Test
+    public void skal_gjor_rollback_om_det_kastes_exception() {
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+
+        Try<List<Testobject>> transactional = Try.of(() -> SqlUtils.transactional(() -> {
+            lagInsertHandlerVoid(db, object1);
+            lagInsertHandlerVoid(db, object2);
+            throw new RuntimeException("Det skjedde en feil her,");
+        }));
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(testobjects).hasSize(0);
+    }
+
+    @Test
+    public void skal_gjor_rollback_om_en_exception_kommer_fra_withHandle() {
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+
+        Try<List<Testobject>> transactional = Try.of(() -> SqlUtils.transactional(() -> {
+            lagInsertHandlerVoid(db, object1);
+            lagInsertHandlerVoid(db, object2);
+
+            SqlUtils.withHandle(db, (handle) -> {
+                throw new RuntimeException("Det skjedde en feil her,");
+            });
+
+            return null;
+        }));
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(testobjects).hasSize(0);
+    }
+
+    @Test
+    public void skal_gjor_rollback_om_en_exception_kommer_fra_useHandle() {
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+
+        Try.of(() -> SqlUtils.transactional(() -> {
+            lagInsertHandlerVoid(db, object1);
+            lagInsertHandlerVoid(db, object2);
+
+            SqlUtils.useHandle(db, (handle) -> {
+                throw new RuntimeException("Det skjedde en feil her,");
+            });
+
+            return null;
+        }));
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(testobjects).hasSize(0);
+    }
+
+    @Test
+    public void skal_gjenbruke_transaksjon_ved_nostede_transaksjoner() {
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+        Testobject object3 = getTestobjectWithId("003");
+        AtomicReference<Handle> handle1 = new AtomicReference<>();
+        AtomicReference<Handle> handle2 = new AtomicReference<>();
+        AtomicReference<Handle> handle3 = new AtomicReference<>();
+
+        Integer transactional = SqlUtils.transactional(() -> {
+            SqlUtils.useHandle(db, (handle) -> { handle1.set(handle); insert(object1, handle); });
+            SqlUtils.transactional(() -> SqlUtils.useHandle(db, (handle) -> { handle2.set(handle); insert(object2, handle); }));
+            return SqlUtils.transactional(() ->
+                    SqlUtils.transactional(() ->
+                            SqlUtils.transactional(() ->
+                                    SqlUtils.withHandle(db, (handle) -> { handle3.set(handle); return insert(object3, handle); })
+                            )
+                    )
+            );
+        });
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(testobjects).hasSize(3);
+        assertThat(handle1.get()).isNotNull();
+        assertThat(handle2.get()).isNotNull();
+        assertThat(handle3.get()).isNotNull();
+        assertThat(handle1.get() == handle2.get()).isTrue();
+        assertThat(handle1.get() == handle3.get()).isTrue();
+    }
+
+    @Test
+    public void feil_i_nosted_transaksjon_skal_propagere_til_toppen() {
+        Try<Integer> transaction = Try.of(() -> SqlUtils.transactional(() ->
+                SqlUtils.transactional(() ->
+                        SqlUtils.transactional(() -> {
+                            throw new RuntimeException("Det skjedde en feil");
+                        })
+                )
+        ));
+
+        assertThat(transaction.isFailure()).isTrue();
+        assertThat(transaction.getCause()).isExactlyInstanceOf(RuntimeException.class);
+        assertThat(transaction.getCause()).hasMessage("Det skjedde en feil");
+    }
+
+    @Test
+    public void exception_blir_propagert_opp_gjennom_transactions() {
+        Try<Integer> transaction = Try.of(() -> SqlUtils.transactional(() -> {
+            SqlUtils.transactional(() ->
+                    SqlUtils.transactional(() -> SqlUtils.useHandle(db, (handle) -> {
+                        throw new RuntimeException("Det skjedde en feil her,");
+                    }))
+            );
+            lagInsertHandlerVoid(db, getTestobjectWithId("001"));
+
+            return 1;
+        }));
+
+        assertThat(transaction.isFailure()).isTrue();
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+        assertThat(testobjects).hasSize(0);
+    }
+
+    @Test
+    public void skal_stotte_nostede_transaksjoner() {
+        DummyRepository repo = new DummyRepository(db);
+        Testobject object1 = getTestobjectWithId("001");
+        Testobject object2 = getTestobjectWithId("002");
+        Testobject object3 = getTestobjectWithId("003");
+        Testobject object4 = getTestobjectWithId("004");
+
+        List<Testobject> result = SqlUtils.transactional(() -> {
+            Integer res1 = repo.insert(object1);
+            Integer res2 = SqlUtils.transactional(() -> repo.insert(object2));
+            Integer res3 = repo.insert(object3);
+            Integer res4 = SqlUtils.transactional(() -> repo.insert(object4));
+
+            return repo.getAll();
+        });
+
+        List<Testobject> testobjects = db.withHandle(handle -> Testobject.getSelectQuery(handle, TESTTABLE1)
+                .executeToList());
+
+        assertThat(testobjects).hasSize(4);
+    }
+
+    private Integer lagInsertHandler(Jdbi jdbi, Testobject object) {
+        return SqlUtils.withHandle(jdbi, (handle) -> insert(object, handle));
+    }
+
+    private int insert(Testobject object, Handle handle) {
+        return SqlUtils.insert(handle, TESTTABLE1)
+                .value(ID, object.getId())
+                .value(NAVN, object.getNavn())
+                .value(DEAD, object.isDead())
+                .value(BIRTHDAY, object.getBirthday())
+                .value(NUMBER_OF_PETS, object.getNumberOfPets())
+                .execute();
+    }
+
+    private void lagInsertHandlerVoid(Jdbi jdbi, Testobject object) {
+        SqlUtils.useHandle(jdbi, (handle) -> insert(object, handle));
+    }
+
+
+    private Testobject getTestobjectWithId(String id) {
+        return new Testobject()
+                .setNavn("navn navnesen")
+                .setId(id)
+                .setBirthday(new Timestamp(0))
+                .setNumberOfPets(4)
+                .setDead(false);
+    }
+
+    @Value
+    public static class NameRecord implements SqlRecord {
+        Column<String, String> id;
+        Column<String, String> navn;
+    }
+
+    class DummyRepository {
+        Jdbi jdbi;
+
+        public DummyRepository(Jdbi jdbi) {
+            this.jdbi = jdbi;
+        }
+
+        Integer insert(Testobject testobject) {
+            return SqlUtils.withHandle(jdbi, (handle) -> testobject
+                    .toInsertQuery(handle, TESTTABLE1)
+                    .execute()
+            );
+        }
+
+        List<Testobject> getAll() {
+            return SqlUtils.withHandle(jdbi, (handle) -> Testobject.getSelectQuery(handle, TESTTABLE1).executeToList());
+        }
+    }
+}
+
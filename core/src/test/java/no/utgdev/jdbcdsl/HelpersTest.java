@@ -0,0 +1,59 @@
+package no.utgdev.jdbcdsl;
+
+import no.utgdev.jdbcdsl.value.FunctionValue;
+import no.utgdev.jdbcdsl.value.Value;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HelpersTest {
+
+    @After
+    public void after_each() {
+        SqlUtils.db = SqlUtils.DbSupport.UNKNOWN;
+    }
+
+    @Test
+    public void multi_row_insert() {
+        assertThat(Helpers.createInsertSqlStatement("T", values(), 1))
+                .isEqualTo("insert into T (A,B) values (?,CURRENT_TIMESTAMP)");
+        assertThat(Helpers.createInsertSqlStatement("T", values(), 3))
+                .isEqualTo("insert into T (A,B) values (?,CURRENT_TIMESTAMP),(?,CURRENT_TIMESTAMP),(?,CURRENT_TIMESTAMP)");
+    }
+
+    @Test
+    public void multi_row_insert_on_oracle() {
+        SqlUtils.db = SqlUtils.DbSupport.ORACLE;
+
+        assertThat(Helpers.createInsertSqlStatement("T", values(), 1))
+                .isEqualTo("insert into T (A,B) values (?,CURRENT_TIMESTAMP)");
+        assertThat(Helpers.createInsertSqlStatement("T", values(), 2))
+                .isEqualTo("insert all into T (A,B) values (?,CURRENT_TIMESTAMP) into T (A,B) values (?,CURRENT_TIMESTAMP) select 1 from dual");
+    }
+
+    @Test
+    public void rows_per_statement_stays_within_the_bind_parameter_limit() {
+        SqlUtils.db = SqlUtils.DbSupport.MSSQL;
+
+        for (int paramsPerRow = 1; paramsPerRow <= 50; paramsPerRow++) {
+            int rows = Helpers.rowsPerStatement(Integer.MAX_VALUE, paramsPerRow);
+            assertThat(rows * paramsPerRow).isLessThanOrEqualTo(2098);
+            assertThat((rows + 1) * paramsPerRow).isGreaterThan(2098);
+        }
+        assertThat(Helpers.rowsPerStatement(Integer.MAX_VALUE, 1)).isEqualTo(2098);
+        assertThat(Helpers.rowsPerStatement(Integer.MAX_VALUE, 3000)).isEqualTo(1);
+        assertThat(Helpers.rowsPerStatement(10, 2)).isEqualTo(10);
+    }
+
+    private static Map<String, Value> values() {
+        Map<String, Value> values = new LinkedHashMap<>();
+        values.put("A", new FunctionValue<>(Function.identity()));
+        values.put("B", Value.of(DbConstants.CURRENT_TIMESTAMP));
+        return values;
+    }
+}
@@ -0,0 +1,96 @@
+package no.utgdev.jdbcdsl;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class QueryCacheTest {
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    public void should_cache_on_sql_and_args() {
+        QueryCache cache = new QueryCache(10, Duration.ofMinutes(1));
+
+        get(cache, "select a", 1);
+        get(cache, "select a", 1);
+        get(cache, "select a", 2);
+        get(cache, "select b", 1);
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getStats()).isEqualTo(QueryCache.Stats.of(1, 3, 0, 3));
+    }
+
+    @Test
+    public void should_evict_least_recently_used() {
+        QueryCache cache = new QueryCache(2, Duration.ofMinutes(1));
+
+        get(cache, "select a", 1);
+        get(cache, "select a", 2);
+        get(cache, "select a", 1);
+        get(cache, "select a", 3);
+        get(cache, "select a", 1);
+        get(cache, "select a", 2);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.getStats().getEvictions()).isEqualTo(2);
+    }
+
+    @Test
+    public void should_expire_entries_after_table_ttl() {
+        AtomicLong now = new AtomicLong();
+        QueryCache cache = new QueryCache(10, Duration.ofMinutes(10)).ttl("table2", Duration.ofSeconds(1));
+        cache.clock = now::get;
+
+        get(cache, "select a", 1, "TABLE1");
+        get(cache, "select b", 1, "TABLE1", "TABLE2");
+        now.addAndGet(Duration.ofSeconds(2).toNanos());
+        get(cache, "select a", 1, "TABLE1");
+        get(cache, "select b", 1, "TABLE1", "TABLE2");
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_invalidate_entries_of_table() {
+        QueryCache cache = new QueryCache(10, Duration.ofMinutes(1));
+
+        get(cache, "select a", 1, "TABLE1");
+        get(cache, "select b", 1, "TABLE2");
+        QueryCache.invalidateEverywhere("table1");
+        get(cache, "select a", 1, "TABLE1");
+        get(cache, "select b", 1, "TABLE2");
+
+        assertThat(loads.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void should_not_cache_rows_loaded_across_an_invalidation() {
+        QueryCache cache = new QueryCache(10, Duration.ofMinutes(1));
+
+        cache.get("select a", new Object[]{1}, false, asList("TABLE1"), () -> {
+            cache.invalidate("table1");
+            return Collections.singletonList(loads.incrementAndGet());
+        });
+        cache.get("select b", new Object[]{1}, false, asList("TABLE2"), () -> {
+            cache.invalidate("table1");
+            return Collections.singletonList(loads.incrementAndGet());
+        });
+        get(cache, "select a", 1, "TABLE1");
+        get(cache, "select b", 1, "TABLE2");
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getStats().getSize()).isEqualTo(2);
+    }
+
+    private List<Integer> get(QueryCache cache, String sql, Object arg, String... tables) {
+        List<String> tableNames = tables.length == 0 ? Collections.singletonList("TABLE") : asList(tables);
+        return cache.get(sql, new Object[]{arg}, false, tableNames, () -> Collections.singletonList(loads.incrementAndGet()));
+    }
+}
@@ -0,0 +1,23 @@
+package no.utgdev.jdbcdsl;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementCacheTest {
+
+    @Test
+    public void should_evict_least_recently_used() {
+        StatementCache cache = new StatementCache(2);
+
+        cache.put("a", "select a");
+        cache.put("b", "select b");
+        cache.get("a");
+        cache.put("c", "select c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("a")).isEqualTo("select a");
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo("select c");
+    }
+}
@@ -0,0 +1,81 @@
+package no.utgdev.jdbcdsl;
+
+
+import lombok.Data;
+import lombok.SneakyThrows;
+import lombok.experimental.Accessors;
+import org.jdbi.v3.core.Handle;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+
+@Data
+@Accessors(chain = true)
+public class Testobject {
+    String navn;
+    String address;
+    String id;
+    Timestamp birthday;
+    boolean dead;
+    int numberOfPets;
+
+    public static Testobject mapper(ResultSet rs) throws SQLException {
+        return new Testobject()
+                .setBirthday(rs.getTimestamp(DbTest.BIRTHDAY))
+                .setDead(rs.getBoolean(DbTest.DEAD))
+                .setId(rs.getString(DbTest.ID))
+                .setNavn(rs.getString(DbTest.NAVN))
+                .setNumberOfPets(rs.getInt(DbTest.NUMBER_OF_PETS));
+    }
+
+    @SneakyThrows
+    public static Testobject mapperWithAddress(ResultSet rs) {
+        return new Testobject()
+                .setBirthday(rs.getTimestamp(DbTest.BIRTHDAY))
+                .setDead(rs.getBoolean(DbTest.DEAD))
+                .setId(rs.getString(DbTest.ID))
+                .setNavn(rs.getString(DbTest.NAVN))
+                .setNumberOfPets(rs.getInt(DbTest.NUMBER_OF_PETS))
+                .setAddress(rs.getString(DbTest.ADDRESS));
+    }
+
+    public static SelectQuery<Testobject> getSelectWithAddressQuery(Handle db, String table) {
+        return SqlUtils.select(db, table, Testobject::mapperWithAddress)
+                .column(DbTest.BIRTHDAY)
+                .column(DbTest.DEAD)
+                .column(DbTest.ID)
+                .column(DbTest.NAVN)
+                .column(DbTest.NUMBER_OF_PETS)
+                .column(DbTest.ADDRESS);
+    }
+
+    public static SelectQuery<Testobject> getSelectQuery(Handle db, String table) {
+        return SqlUtils.select(db, table, Testobject::mapper)
+                .column(DbTest.BIRTHDAY)
+                .column(DbTest.DEAD)
+                .column(DbTest.ID)
+                .column(DbTest.NAVN)
+                .column(DbTest.NUMBER_OF_PETS);
+    }
+
+    public InsertQuery toInsertQuery(Handle db, String table) {
+        return SqlUtils.insert(db, table)
+                .value(DbTest.BIRTHDAY, birthday)
+                .value(DbTest.ID, id)
+                .value(DbTest.DEAD, dead)
+                .value(DbTest.NUMBER_OF_PETS, numberOfPets)
+                .value(DbTest.NAVN, navn);
+    }
+
+    public static InsertBatchQuery<Testobject> getInsertBatchQuery(Handle db, String table) {
+        InsertBatchQuery<Testobject> insertBatchQuery = new InsertBatchQuery<>(db, table);
+        return insertBatchQuery
+                .add(DbTest.NAVN, Testobject::getNavn)
+                .add(DbTest.DEAD, Testobject::isDead)
+                .add(DbTest.ID, Testobject::getId)
+                .add(DbTest.BIRTHDAY, Testobject::getBirthday)
+                .add(DbTest.NUMBER_OF_PETS, Testobject::getNumberOfPets);
+    }
+}
@@ -0,0 +1,308 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import lombok.Value;
+import no.utgdev.jdbcdsl.DatachangeingQuery;
+import no.utgdev.jdbcdsl.SelectQuery;
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class QueryMappingTest {
+
+    @Test
+    public void should_not_create_multiple_mappers_of_same_type() {
+        QueryMapping<TestRecord> mapper = QueryMapping.of(TestRecord.class);
+        QueryMapping<TestRecord> mapper2 = QueryMapping.of(TestRecord.class);
+
+        assertThat(mapper == mapper2).isTrue();
+    }
+
+    @Test
+    public void should_build_one_mapper_when_called_concurrently() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<QueryMapping<ConcurrentRecord>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return QueryMapping.of(ConcurrentRecord.class);
+                }));
+            }
+            start.countDown();
+
+            for (Future<QueryMapping<ConcurrentRecord>> future : futures) {
+                assertThat(future.get()).isSameAs(QueryMapping.of(ConcurrentRecord.class));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void should_report_all_invalid_records_on_warm_up() {
+        assertThatThrownBy(() -> QueryMapping.warmUp(TestRecord.class, NonSupportedFieldRecord.class, NonSupportedMappingRecord.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .satisfies((e) -> assertThat(e.getSuppressed()).hasSize(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_error_for_non_column_types() {
+        QueryMapping.of(NonSupportedFieldRecord.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_error_for_unknown_mapping() {
+        QueryMapping.of(NonSupportedMappingRecord.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_if_a_matching_constructor_is_not_found() {
+        QueryMapping.of(NoMatchingConstructorRecord.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_if_a_matching_constructor_is_not_found2() {
+        QueryMapping.of(NoMatchingConstructorRecord2.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_if_a_matching_constructor_is_not_found3() {
+        QueryMapping.of(MultipleConstructorRecord.class);
+    }
+
+    @Test
+    public void should_add_columns_based_on_field_names() {
+        ArgumentCaptor<String> names = ArgumentCaptor.forClass(String.class);
+        SelectQuery query = mock(SelectQuery.class);
+        when(query.column(names.capture())).thenReturn(query);
+
+        QueryMapping.of(TestRecord.class).applyColumn(query);
+
+        verify(query, times(3)).column(anyString());
+        assertThat(names.getAllValues()).isEqualTo(Arrays.asList("name", "age", "birth"));
+    }
+
+    @Test
+    public void should_create_resultset_mapper() throws SQLException {
+        LocalDate now = LocalDate.now();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenReturn("Bruce Wayne");
+        when(rs.getInt(anyString())).thenReturn(42);
+        when(rs.getDate(anyString())).thenReturn(Date.valueOf(now));
+
+        TestRecord record = QueryMapping.of(TestRecord.class).createMapper(rs);
+
+        assertThat(record.name.value).isEqualTo("Bruce Wayne");
+        assertThat(record.age.value).isEqualTo(42);
+        assertThat(record.birth.value).isEqualTo(now);
+    }
+
+    @Test
+    public void should_resolve_column_index_once_per_resultset() throws SQLException {
+        LocalDate now = LocalDate.now();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.findColumn("name")).thenReturn(1);
+        when(rs.findColumn("age")).thenReturn(2);
+        when(rs.findColumn("birth")).thenReturn(3);
+        when(rs.getString(1)).thenReturn("Bruce Wayne");
+        when(rs.getInt(2)).thenReturn(42);
+        when(rs.getDate(3)).thenReturn(Date.valueOf(now));
+
+        Function<ResultSet, TestRecord> mapper = QueryMapping.of(TestRecord.class).rowMapper(rs);
+        mapper.apply(rs);
+        TestRecord record = mapper.apply(rs);
+
+        assertThat(record.name.value).isEqualTo("Bruce Wayne");
+        assertThat(record.age.value).isEqualTo(42);
+        assertThat(record.birth.value).isEqualTo(now);
+        verify(rs, times(1)).findColumn("name");
+        verify(rs, never()).getString(anyString());
+    }
+
+    @Test
+    public void should_keep_column_indices_of_interleaved_resultsets_apart() throws SQLException {
+        ResultSet rs1 = mock(ResultSet.class);
+        when(rs1.findColumn("name")).thenReturn(1);
+        when(rs1.getString(1)).thenReturn("Bruce Wayne");
+        ResultSet rs2 = mock(ResultSet.class);
+        when(rs2.findColumn("name")).thenReturn(3);
+        when(rs2.getString(3)).thenReturn("Clark Kent");
+
+        QueryMapping<TestRecord> mapping = QueryMapping.of(TestRecord.class);
+        Function<ResultSet, TestRecord> mapper1 = mapping.rowMapper(rs1);
+        Function<ResultSet, TestRecord> mapper2 = mapping.rowMapper(rs2);
+
+        assertThat(mapper1.apply(rs1).name.value).isEqualTo("Bruce Wayne");
+        assertThat(mapper2.apply(rs2).name.value).isEqualTo("Clark Kent");
+        assertThat(mapper1.apply(rs1).name.value).isEqualTo("Bruce Wayne");
+        verify(rs1, times(1)).findColumn("name");
+        verify(rs2, times(1)).findColumn("name");
+    }
+
+    @Test
+    public void should_map_plain_fields_without_column_wrappers() throws SQLException {
+        LocalDate now = LocalDate.now();
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(anyString())).thenReturn("Bruce Wayne");
+        when(rs.getInt(anyString())).thenReturn(42);
+        when(rs.getDate(anyString())).thenReturn(Date.valueOf(now));
+        DatachangeingQuery query = mock(DatachangeingQuery.class);
+
+        QueryMapping<PlainRecord> mapping = QueryMapping.of(PlainRecord.class);
+        PlainRecord record = mapping.createMapper(rs);
+        mapping.applyColumn(query, record);
+
+        assertThat(record).isEqualTo(new PlainRecord("Bruce Wayne", 42, now, Column.of("Bruce Wayne")));
+        verify(query).set("name", "Bruce Wayne");
+        verify(query).set("age", 42);
+        verify(query).set("birth", now);
+        verify(query).set("alias", "Bruce Wayne");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_throw_if_plain_field_does_not_match_constructor() {
+        QueryMapping.of(PlainMismatchRecord.class);
+    }
+
+    @Test
+    public void should_read_column_values_for_writes() {
+        DatachangeingQuery query = mock(DatachangeingQuery.class);
+        TestRecord record = new TestRecord(Column.of("Bruce Wayne"), Column.of(42), null);
+
+        QueryMapping.of(TestRecord.class).applyColumn(query, record);
+
+        verify(query).set("name", "Bruce Wayne");
+        verify(query).set("age", 42);
+        verify(query).set("birth", null);
+    }
+
+    @Test
+    public void should_use_deserializers_registered_after_the_mapping_was_built() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("flag")).thenReturn("J");
+        QueryMapping<FlagRecord> mapping = QueryMapping.of(FlagRecord.class);
+
+        try {
+            assertThat(mapping.createMapper(rs).flag.value).isTrue();
+            QueryMapping.register(String.class, Boolean.class, "N"::equals);
+            assertThat(mapping.createMapper(rs).flag.value).isFalse();
+        } finally {
+            TypeMapping.reset();
+        }
+    }
+
+    @Test
+    public void should_use_generated_mapper_when_present() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("name")).thenReturn("Bruce Wayne");
+        DatachangeingQuery query = mock(DatachangeingQuery.class);
+
+        QueryMapping<GeneratedRecord> mapping = QueryMapping.of(GeneratedRecord.class);
+        GeneratedRecord record = mapping.createMapper(rs);
+        mapping.applyColumn(query, record);
+
+        assertThat(record.name.value).isEqualTo("generated: Bruce Wayne");
+        verify(query).set("name", "generated: Bruce Wayne");
+    }
+
+    @Value
+    static class TestRecord implements SqlRecord {
+        Column<String, String> name;
+        Column<Integer, Integer> age;
+        Column<Date, LocalDate> birth;
+    }
+
+    @Value
+    static class GeneratedRecord implements SqlRecord {
+        Column<String, String> name;
+    }
+
+    @Value
+    static class FlagRecord implements SqlRecord {
+        Column<String, Boolean> flag;
+    }
+
+    @Value
+    static class ConcurrentRecord implements SqlRecord {
+        Column<String, String> name;
+    }
+
+    @Value
+    static class PlainRecord implements SqlRecord {
+        @SqlType(String.class) String name;
+        @SqlType(Integer.class) int age;
+        @SqlType(Date.class) LocalDate birth;
+        Column<String, String> alias;
+    }
+
+    static class PlainMismatchRecord implements SqlRecord {
+        @SqlType(Date.class) LocalDate birth;
+
+        public PlainMismatchRecord(Date birth) {
+
+        }
+    }
+
+    @Value
+    static class NonSupportedFieldRecord implements SqlRecord {
+        String name;
+    }
+
+    @Value
+    static class NonSupportedMappingRecord implements SqlRecord {
+        Column<String, Character[]> name;
+    }
+
+    static class NoMatchingConstructorRecord implements SqlRecord {
+        Column<String, Boolean> name;
+
+        public NoMatchingConstructorRecord(Column<String, LocalDate> name) {
+
+        }
+    }
+
+    static class NoMatchingConstructorRecord2 implements SqlRecord {
+        Column<String, Boolean> name;
+
+        public NoMatchingConstructorRecord2(String name) {
+
+        }
+    }
+    static class MultipleConstructorRecord implements SqlRecord {
+        Column<String, Boolean> name;
+
+        public MultipleConstructorRecord(String name) {
+
+        }
+
+        public MultipleConstructorRecord(Boolean name) {
+
+        }
+    }
+
+    static <FROM, TO> QueryMapping.InternalColumn<FROM, TO> column(Class<FROM> fromCls, Class<TO> toCls) {
+        return QueryMapping.InternalColumn.of("name", null, fromCls, toCls);
+    }
+}
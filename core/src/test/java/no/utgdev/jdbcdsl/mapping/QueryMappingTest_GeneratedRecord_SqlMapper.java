@@ -0,0 +1,33 @@
+package no.utgdev.jdbcdsl.mapping;
+
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+import no.utgdev.jdbcdsl.mapping.QueryMappingTest.GeneratedRecord;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.ResultSet;
+
+// Written by hand in the shape of the processor output, the prefix lets the test verify that it is used.
+// The real processor output is tested against QueryMapping in SqlRecordProcessorTest
+public class QueryMappingTest_GeneratedRecord_SqlMapper extends GeneratedMapper<GeneratedRecord> {
+    private final ColumnReader<String, String> name = reader("name", String.class, String.class);
+    private final MethodHandle nameGetter = getter(GeneratedRecord.class, "name");
+
+    public QueryMappingTest_GeneratedRecord_SqlMapper() {
+        super("name");
+    }
+
+    @Override
+    public GeneratedRecord read(ResultSet rs, int[] indices) {
+        return new GeneratedRecord(Column.of("generated: " + name.read(rs, indices[0]).value));
+    }
+
+    @Override
+    public Object value(GeneratedRecord record, int column) {
+        switch (column) {
+            case 0:
+                return valueOf(nameGetter, record);
+            default:
+                throw new IndexOutOfBoundsException("Column " + column);
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package no.utgdev.jdbcdsl.mapping;
 
-import io.vavr.collection.HashMap;
 import org.junit.After;
 import org.junit.Test;
 
@@ -15,8 +14,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class TypeMappingTest {
     @After
     public void after_each() {
-        TypeMapping.typemappers = HashMap.empty();
-        TypeMapping.registerDefaults();
+        TypeMapping.reset();
     }
 
     @Test
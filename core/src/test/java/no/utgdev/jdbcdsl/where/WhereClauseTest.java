@@ -0,0 +1,128 @@
+package no.utgdev.jdbcdsl.where;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+
+public class WhereClauseTest {
+    @Test
+    public void where_or() {
+        WhereClause whereClause1 = WhereClause.equals("felt1","verdi1");
+        WhereClause whereClause2 = WhereClause.equals("felt2","verdi2");
+        WhereClause whereClause3 = WhereClause.equals("felt3","verdi3");
+        assertThat(whereClause1.and(whereClause2.or(whereClause3)).toSql()).isEqualTo("(felt1 = ?) AND ((felt2 = ?) OR (felt3 = ?))");
+    }
+
+    @Test
+    public void chains_are_flattened() {
+        WhereClause whereClause1 = WhereClause.equals("felt1","verdi1");
+        WhereClause whereClause2 = WhereClause.equals("felt2","verdi2");
+        WhereClause whereClause3 = WhereClause.equals("felt3","verdi3");
+
+        WhereClause chain = whereClause1.and(whereClause2).and(whereClause3).or(whereClause1).or(whereClause2.or(whereClause3));
+
+        assertThat(chain.toSql()).isEqualTo("((felt1 = ?) AND (felt2 = ?) AND (felt3 = ?)) OR (felt1 = ?) OR (felt2 = ?) OR (felt3 = ?)");
+        assertThat(chain.getArgs()).containsExactly("verdi1", "verdi2", "verdi3", "verdi1", "verdi2", "verdi3");
+    }
+
+    @Test
+    public void large_and_deeply_nested_clauses() {
+        List<WhereClause> terms = IntStream.range(0, 10000)
+                .mapToObj((i) -> WhereClause.equals("felt" + i, i))
+                .collect(Collectors.toList());
+        WhereClause nested = terms.get(0);
+        for (int i = 1; i < terms.size(); i++) {
+            nested = i % 2 == 0 ? terms.get(i).and(nested) : terms.get(i).or(nested);
+        }
+
+        assertThat(WhereClause.allOf(terms).getArgs()).hasSize(10000);
+        assertThat(WhereClause.anyOf(terms).toSql()).startsWith("(felt0 = ?) OR (felt1 = ?)");
+        assertThat(nested.toSql()).startsWith("(felt9999 = ?) OR ((felt9998 = ?) AND (");
+        assertThat(nested.getArgs()).hasSize(10000);
+    }
+
+    @Test
+    public void deeply_nested_clauses_are_compared_and_simplified() {
+        WhereClause nested = nested(10000, 0);
+        WhereClause same = nested(10000, 0);
+        WhereClause other = nested(10000, 1);
+
+        assertThat(nested.hashCode()).isEqualTo(same.hashCode());
+        assertThat(nested).isEqualTo(same).isNotEqualTo(other);
+        assertThat(nested.getShape()).isEqualTo(other.getShape());
+        assertThat(nested.getShape().hashCode()).isEqualTo(other.getShape().hashCode());
+        assertThat(nested.simplify()).isEqualTo(same.simplify());
+    }
+
+    static WhereClause nested(int depth, int offset) {
+        WhereClause nested = WhereClause.equals("felt0", offset);
+        for (int i = 1; i < depth; i++) {
+            WhereClause term = WhereClause.equals("felt" + i, i + offset);
+            nested = i % 2 == 0 ? term.and(nested) : term.or(nested);
+        }
+        return nested;
+    }
+
+    @Test
+    public void simplify_folds_constants() {
+        WhereClause felt1 = WhereClause.equals("felt1", "verdi1");
+
+        assertThat(felt1.and(WhereClause.alwaysTrue()).simplify()).isEqualTo(felt1);
+        assertThat(felt1.or(WhereClause.alwaysFalse()).simplify()).isEqualTo(felt1);
+        assertThat(felt1.and(WhereClause.alwaysFalse().or(WhereClause.in("felt2", asList()))).simplify()).isEqualTo(WhereClause.alwaysFalse());
+        assertThat(felt1.or(WhereClause.alwaysTrue()).simplify()).isEqualTo(WhereClause.alwaysTrue());
+        assertThat(WhereClause.alwaysTrue().getArgs()).isEmpty();
+    }
+
+    @Test
+    public void simplify_reuses_clauses_which_do_not_change() {
+        WhereClause felt1 = WhereClause.equals("felt1", "verdi1");
+        WhereClause simple = felt1.and(WhereClause.equals("felt2", 1).or(WhereClause.isNull("felt3")));
+        WhereClause changing = felt1.and(simple).and(WhereClause.alwaysTrue());
+
+        assertThat(simple.simplify()).isSameAs(simple);
+        assertThat(changing.simplify()).isNotSameAs(changing).isEqualTo(simple).isSameAs(changing.simplify());
+    }
+
+    @Test
+    public void simplify_removes_duplicates_and_merges_equals() {
+        WhereClause whereClause = WhereClause.equals("felt1", "verdi1")
+                .and(WhereClause.isNull("felt2"))
+                .and(WhereClause.equals("felt1", "verdi1"))
+                .and(WhereClause.equals("felt3", 1)
+                        .or(WhereClause.isNull("felt4"))
+                        .or(WhereClause.equals("felt3", 2))
+                        .or(WhereClause.in("felt3", asList(2, 3)))
+                );
+
+        WhereClause simplified = whereClause.simplify();
+
+        assertThat(simplified.toSql()).isEqualTo("(felt1 = ?) AND (felt2 is null) AND ((felt3 IN (?,?,?)) OR (felt4 is null))");
+        assertThat(simplified.getArgs()).containsExactly("verdi1", 1, 2, 3);
+    }
+
+    @Test
+    public void shape_ignores_values() {
+        WhereClause whereClause1 = WhereClause.equals("felt1", "verdi1").and(WhereClause.in("felt2", asList(1, 2)));
+        WhereClause whereClause2 = WhereClause.equals("felt1", "verdi2").and(WhereClause.in("felt2", asList(3, 4)));
+
+        assertThat(whereClause1.getShape()).isEqualTo(whereClause2.getShape());
+    }
+
+    @Test
+    public void shape_differs_for_different_structure() {
+        WhereClause whereClause = WhereClause.equals("felt1", "verdi1");
+
+        assertThat(whereClause.getShape()).isNotEqualTo(WhereClause.gt("felt1", "verdi1").getShape());
+        assertThat(whereClause.getShape()).isNotEqualTo(WhereClause.equals("felt2", "verdi1").getShape());
+        assertThat(WhereClause.isNull("felt1").getShape()).isNotEqualTo(WhereClause.isNotNull("felt1").getShape());
+        assertThat(WhereClause.in("felt1", asList(1, 2)).getShape()).isNotEqualTo(WhereClause.in("felt1", asList(1, 2, 3)).getShape());
+        assertThat(whereClause.and(whereClause).getShape()).isNotEqualTo(whereClause.or(whereClause).getShape());
+    }
+}
@@ -0,0 +1,45 @@
+package no.utgdev.jdbcdsl.where;
+
+import no.utgdev.jdbcdsl.SqlUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WhereInArrayTest {
+    private final SqlUtils.DbSupport db = SqlUtils.db;
+
+    @After
+    public void after_each() {
+        SqlUtils.db = db;
+    }
+
+    @Test
+    public void where_in_array_sql() {
+        WhereClause whereClause = WhereClause.inArray("FIELD", asList("value1", "value2"));
+
+        SqlUtils.db = SqlUtils.DbSupport.UNKNOWN;
+        assertThat(whereClause.toSql()).isEqualTo("FIELD IN (UNNEST(?))");
+        SqlUtils.db = SqlUtils.DbSupport.ORACLE;
+        assertThat(whereClause.toSql()).isEqualTo("FIELD IN (SELECT COLUMN_VALUE FROM TABLE(?))");
+        SqlUtils.db = SqlUtils.DbSupport.MSSQL;
+        assertThat(whereClause.toSql()).isEqualTo("FIELD IN (SELECT value FROM OPENJSON(?))");
+    }
+
+    @Test
+    public void one_argument_and_shape_regardless_of_size() {
+        WhereClause small = WhereClause.inArray("FIELD", asList(1, 2));
+        WhereClause large = WhereClause.inArray("FIELD", asList(1, 2, 3, 4));
+
+        assertThat(large.getArgs()).hasSize(1);
+        assertThat(small.getShape()).isEqualTo(large.getShape());
+    }
+
+    @Test
+    public void values_are_bound_as_json_on_mssql() {
+        WhereInArray.ArrayArgument argument = new WhereInArray.ArrayArgument(new Object[]{1, "a\"b", null, "c\\d"}, null);
+
+        assertThat(argument.toJson()).isEqualTo("[1,\"a\\\"b\",null,\"c\\\\d\"]");
+    }
+}
@@ -0,0 +1,104 @@
+package no.utgdev.jdbcdsl.where;
+
+
+
+import no.utgdev.jdbcdsl.SqlUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WhereInTest {
+
+    @After
+    public void after_each() {
+        SqlUtils.inListPadding = InListPadding.none();
+    }
+
+    @Test
+    public void where_in_sql() {
+        WhereIn whereIn = new WhereIn("FIELD", asList("value1", "value2"));
+        assertThat(whereIn.toSql()).isEqualTo("FIELD IN (?,?)");
+    }
+
+    @Test
+    public void padded_with_last_value() {
+        SqlUtils.inListPadding = InListPadding.powersOfTwo();
+        WhereIn whereIn = new WhereIn("FIELD", asList("value1", "value2", "value3"));
+
+        assertThat(whereIn.toSql()).isEqualTo("FIELD IN (?,?,?,?)");
+        assertThat(whereIn.getArgs()).containsExactly("value1", "value2", "value3", "value3");
+        assertThat(whereIn.getShape()).isEqualTo(new WhereIn("FIELD", asList(1, 2, 3, 4)).getShape());
+    }
+
+    @Test
+    public void padding_is_bounded_by_the_in_list_limit_of_the_database() {
+        SqlUtils.DbSupport db = SqlUtils.db;
+        try {
+            SqlUtils.db = SqlUtils.DbSupport.ORACLE;
+            SqlUtils.inListPadding = InListPadding.steps(10, 2000);
+
+            assertThat(new WhereIn("FIELD", asList(1, 2, 3)).getArgs()).hasSize(10);
+            assertThat(new WhereIn("FIELD", asList(new Object[11])).getArgs()).hasSize(1000);
+            assertThat(new WhereIn("FIELD", asList(new Object[1001])).getArgs()).hasSize(1001);
+        } finally {
+            SqlUtils.db = db;
+        }
+    }
+
+    @Test
+    public void padding_steps() {
+        InListPadding powersOfTwo = InListPadding.powersOfTwo();
+        InListPadding steps = InListPadding.steps(50, 10);
+
+        assertThat(powersOfTwo.padTo(1)).isEqualTo(1);
+        assertThat(powersOfTwo.padTo(5)).isEqualTo(8);
+        assertThat(powersOfTwo.padTo(513)).isEqualTo(1000);
+        assertThat(powersOfTwo.padTo(1001)).isEqualTo(1001);
+        assertThat(steps.padTo(3)).isEqualTo(10);
+        assertThat(steps.padTo(11)).isEqualTo(50);
+        assertThat(steps.padTo(51)).isEqualTo(51);
+        assertThat(InListPadding.none().padTo(3)).isEqualTo(3);
+    }
+
+    @Test
+    public void split_removes_duplicates_and_keeps_other_conditions() {
+        WhereClause whereClause = WhereClause.equals("A", 1)
+                .and(WhereClause.in("FIELD", asList(1, 2, 2, 3, 4, 5)));
+
+        List<WhereClause> chunks = whereClause.splitIn(2);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(chunks.get(0).toSql()).isEqualTo("(A = ?) AND (FIELD IN (?,?))");
+        assertThat(chunks.get(2).toSql()).isEqualTo("(A = ?) AND (FIELD IN (?))");
+        assertThat(chunks.get(1).getArgs()).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    public void every_oversized_in_list_is_split() {
+        WhereClause whereClause = WhereClause.in("A", asList(1, 2, 3))
+                .and(WhereClause.equals("B", 1))
+                .and(WhereClause.in("C", asList(4, 5, 6)));
+
+        List<WhereClause> chunks = whereClause.splitIn(2);
+
+        assertThat(chunks).hasSize(4);
+        assertThat(chunks).allSatisfy((chunk) -> assertThat(chunk.splitIn(2)).containsExactly(chunk));
+        assertThat(chunks.get(0).getArgs()).containsExactly(1, 2, 1, 4, 5);
+        assertThat(chunks.get(3).getArgs()).containsExactly(3, 1, 6);
+    }
+
+    @Test
+    public void disjunctions_are_not_split() {
+        WhereClause whereClause = WhereClause.equals("A", 1)
+                .or(WhereClause.in("FIELD", asList(1, 2, 3)));
+
+        assertThat(whereClause.splitIn(2)).containsExactly(whereClause);
+    }
+
+
+
+}
@@ -0,0 +1,282 @@
+package no.utgdev.jdbcdsl.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Generates a <Record>_SqlMapper for every SqlRecord it can map without reflection.
+// Records it cannot handle are left to the reflection based QueryMapping, which also reports their errors.
+@SupportedAnnotationTypes("*")
+public class SqlRecordProcessor extends AbstractProcessor {
+    static final String SQL_RECORD = "no.utgdev.jdbcdsl.mapping.SqlRecord";
+    static final String COLUMN = "no.utgdev.jdbcdsl.mapping.QueryMapping.Column";
+    static final String GENERATED_MAPPER = "no.utgdev.jdbcdsl.mapping.GeneratedMapper";
+    static final String COLUMN_READER = "no.utgdev.jdbcdsl.mapping.ColumnReader";
+    static final String SUFFIX = "_SqlMapper";
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement sqlRecord = processingEnv.getElementUtils().getTypeElement(SQL_RECORD);
+        TypeElement column = processingEnv.getElementUtils().getTypeElement(COLUMN);
+        if (sqlRecord == null || column == null) {
+            return false;
+        }
+
+        List<TypeElement> types = new ArrayList<>();
+        for (Element element : roundEnv.getRootElements()) {
+            collectTypes(element, types);
+        }
+
+        Types typeUtils = processingEnv.getTypeUtils();
+        for (TypeElement type : types) {
+            if (typeUtils.isAssignable(typeUtils.erasure(type.asType()), typeUtils.erasure(sqlRecord.asType()))) {
+                RecordModel model = RecordModel.of(type, column, typeUtils);
+                if (model != null && generated.add(model.mapperName())) {
+                    write(model);
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void collectTypes(Element element, List<TypeElement> types) {
+        if (element.getKind() == ElementKind.CLASS) {
+            types.add((TypeElement) element);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(element.getEnclosedElements())) {
+            collectTypes(nested, types);
+        }
+    }
+
+    private void write(RecordModel model) {
+        String qualifiedName = model.packageName.isEmpty() ? model.mapperName() : model.packageName + "." + model.mapperName();
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, model.type).openWriter()) {
+            writer.write(model.render());
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + qualifiedName + ": " + e, model.type);
+        }
+    }
+
+    static class RecordModel {
+        final TypeElement type;
+        final String packageName;
+        final String simpleNames;
+        final String typeName;
+        final List<ColumnModel> columns;
+
+        private RecordModel(TypeElement type, String packageName, String simpleNames, List<ColumnModel> columns) {
+            this.type = type;
+            this.packageName = packageName;
+            this.simpleNames = simpleNames;
+            this.typeName = type.getQualifiedName().toString();
+            this.columns = columns;
+        }
+
+        static RecordModel of(TypeElement type, TypeElement column, Types types) {
+            if (!isInstantiable(type)) {
+                return null;
+            }
+
+            boolean lombokFields = hasAnnotation(type, "lombok.Value") || hasAnnotation(type, "lombok.experimental.FieldDefaults");
+            List<ColumnModel> columns = new ArrayList<>();
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC)) {
+                    continue;
+                }
+                ColumnModel model = ColumnModel.of(field, column, types, lombokFields);
+                if (model == null) {
+                    return null;
+                }
+                columns.add(model);
+            }
+
+            if (!hasMatchingConstructor(type, columns, types)) {
+                return null;
+            }
+
+            StringBuilder simpleNames = new StringBuilder(type.getSimpleName());
+            Element enclosing = type.getEnclosingElement();
+            while (enclosing.getKind() != ElementKind.PACKAGE) {
+                simpleNames.insert(0, enclosing.getSimpleName() + "_");
+                enclosing = enclosing.getEnclosingElement();
+            }
+            String packageName = ((PackageElement) enclosing).getQualifiedName().toString();
+
+            return new RecordModel(type, packageName, simpleNames.toString(), columns);
+        }
+
+        // The mapper lives in the same package, so the record and its enclosing types only have to be non-private
+        private static boolean isInstantiable(TypeElement type) {
+            if (type.getModifiers().contains(Modifier.ABSTRACT) || !type.getTypeParameters().isEmpty()) {
+                return false;
+            }
+
+            Element element = type;
+            while (element.getKind() != ElementKind.PACKAGE) {
+                if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                    return false;
+                }
+                if (element instanceof TypeElement
+                        && ((TypeElement) element).getNestingKind() == NestingKind.MEMBER
+                        && !element.getModifiers().contains(Modifier.STATIC)) {
+                    return false;
+                }
+                element = element.getEnclosingElement();
+            }
+            return true;
+        }
+
+        // Same rule as QueryMapping; one public constructor taking the columns in declaration order.
+        // Constructors generated by lombok may not be visible yet, in which case lombok is trusted.
+        private static boolean hasMatchingConstructor(TypeElement type, List<ColumnModel> columns, Types types) {
+            List<ExecutableElement> candidates = new ArrayList<>();
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                if (constructor.getModifiers().contains(Modifier.PUBLIC) && constructor.getParameters().size() == columns.size()) {
+                    candidates.add(constructor);
+                }
+            }
+
+            if (candidates.isEmpty()) {
+                return hasAnnotation(type, "lombok.Value") || hasAnnotation(type, "lombok.AllArgsConstructor");
+            } else if (candidates.size() > 1) {
+                return false;
+            }
+
+            List<? extends VariableElement> parameters = candidates.get(0).getParameters();
+            for (int i = 0; i < columns.size(); i++) {
+                if (!types.isSameType(parameters.get(i).asType(), columns.get(i).field.asType())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String mapperName() {
+            return simpleNames + SUFFIX;
+        }
+
+        String render() {
+            StringBuilder src = new StringBuilder();
+            if (!packageName.isEmpty()) {
+                src.append("package ").append(packageName).append(";\n\n");
+            }
+
+            src.append("// Generated by ").append(SqlRecordProcessor.class.getName()).append(" from ").append(typeName).append('\n');
+            src.append("public class ").append(mapperName())
+                    .append(" extends ").append(GENERATED_MAPPER).append('<').append(typeName).append("> {\n");
+
+            for (int i = 0; i < columns.size(); i++) {
+                ColumnModel column = columns.get(i);
+                src.append("    private final ").append(COLUMN_READER)
+                        .append('<').append(column.from).append(", ").append(column.to).append("> reader").append(i)
+                        .append(" = reader(\"").append(column.name).append("\", ")
+                        .append(column.from).append(".class, ").append(column.to).append(".class);\n");
+                if (!column.direct) {
+                    src.append("    private final java.lang.invoke.MethodHandle getter").append(i)
+                            .append(" = getter(").append(typeName).append(".class, \"").append(column.name).append("\");\n");
+                }
+            }
+
+            src.append("\n    public ").append(mapperName()).append("() {\n        super(");
+            for (int i = 0; i < columns.size(); i++) {
+                src.append(i > 0 ? ", " : "").append('"').append(columns.get(i).name).append('"');
+            }
+            src.append(");\n    }\n");
+
+            src.append("\n    @Override\n    public ").append(typeName).append(" read(java.sql.ResultSet rs, int[] indices) {\n");
+            src.append("        return new ").append(typeName).append('(');
+            for (int i = 0; i < columns.size(); i++) {
+                src.append(i > 0 ? ", " : "").append("reader").append(i).append(".read(rs, indices[").append(i).append("])");
+            }
+            src.append(");\n    }\n");
+
+            src.append("\n    @Override\n    public Object value(").append(typeName).append(" record, int column) {\n");
+            src.append("        switch (column) {\n");
+            for (int i = 0; i < columns.size(); i++) {
+                src.append("            case ").append(i).append(":\n                return ");
+                if (columns.get(i).direct) {
+                    src.append("valueOf(record.").append(columns.get(i).name).append(");\n");
+                } else {
+                    src.append("valueOf(getter").append(i).append(", record);\n");
+                }
+            }
+            src.append("            default:\n");
+            src.append("                throw new IndexOutOfBoundsException(\"Column \" + column);\n");
+            src.append("        }\n    }\n}\n");
+            return src.toString();
+        }
+    }
+
+    static class ColumnModel {
+        final VariableElement field;
+        final String name;
+        final String from;
+        final String to;
+        final boolean direct;
+
+        private ColumnModel(VariableElement field, String from, String to, boolean direct) {
+            this.field = field;
+            this.name = field.getSimpleName().toString();
+            this.from = from;
+            this.to = to;
+            this.direct = direct;
+        }
+
+        // Only Column<FROM, TO> with plain class arguments, which is what QueryMapping supports
+        static ColumnModel of(VariableElement field, TypeElement column, Types types, boolean lombokFields) {
+            TypeMirror type = field.asType();
+            if (type.getKind() != TypeKind.DECLARED || !types.isSameType(types.erasure(type), types.erasure(column.asType()))) {
+                return null;
+            }
+
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (arguments.size() != 2 || !isPlainClass(arguments.get(0)) || !isPlainClass(arguments.get(1))) {
+                return null;
+            }
+
+            boolean direct = !lombokFields && !field.getModifiers().contains(Modifier.PRIVATE);
+            return new ColumnModel(field, typeName(arguments.get(0)), typeName(arguments.get(1)), direct);
+        }
+
+        private static boolean isPlainClass(TypeMirror type) {
+            return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+        }
+
+        private static String typeName(TypeMirror type) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        }
+    }
+
+    private static boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch((mirror) -> ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation));
+    }
+}
@@ -0,0 +1,184 @@
+package no.utgdev.jdbcdsl.processor;
+
+import no.utgdev.jdbcdsl.mapping.GeneratedMapper;
+import no.utgdev.jdbcdsl.mapping.QueryMapping;
+import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;
+import no.utgdev.jdbcdsl.mapping.SqlRecord;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlRecordProcessorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path sources;
+    private Path classes;
+
+    @Before
+    public void setup() throws IOException {
+        sources = folder.newFolder("src").toPath();
+        classes = folder.newFolder("classes").toPath();
+    }
+
+    @Test
+    public void generates_mapper_for_records() throws Exception {
+        compile("test/Person.java",
+                "package test;",
+                "import no.utgdev.jdbcdsl.mapping.SqlRecord;",
+                "import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;",
+                "public class Person implements SqlRecord {",
+                "    final Column<String, String> name;",
+                "    private final Column<Integer, Integer> age;",
+                "    public Person(Column<String, String> name, Column<Integer, Integer> age) {",
+                "        this.name = name;",
+                "        this.age = age;",
+                "    }",
+                "}");
+
+        String mapper = read("test/Person_SqlMapper.java");
+        assertThat(mapper).contains("super(\"name\", \"age\")");
+        assertThat(mapper).contains("return new test.Person(reader0.read(rs, indices[0]), reader1.read(rs, indices[1]));");
+        assertThat(mapper).contains("valueOf(record.name)");
+        assertThat(mapper).contains("valueOf(getter1, record)");
+        assertThat(columns("test.Person_SqlMapper")).containsExactly("name", "age");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void generated_mapper_is_used_by_query_mapping() throws Exception {
+        compile("test/Pet.java",
+                "package test;",
+                "import no.utgdev.jdbcdsl.mapping.SqlRecord;",
+                "import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;",
+                "public class Pet implements SqlRecord {",
+                "    final Column<String, String> name;",
+                "    private final Column<Integer, Integer> age;",
+                "    public Pet(Column<String, String> name, Column<Integer, Integer> age) {",
+                "        this.name = name;",
+                "        this.age = age;",
+                "    }",
+                "}");
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, SqlRecord.class.getClassLoader());
+             Connection connection = DriverManager.getConnection("jdbc:hsqldb:mem:" + getClass().getSimpleName(), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE PET (AGE INTEGER, NAME VARCHAR(255))");
+            statement.execute("INSERT INTO PET VALUES (3, 'Fido')");
+
+            Class<? extends SqlRecord> petClass = (Class<? extends SqlRecord>) loader.loadClass("test.Pet");
+            QueryMapping<SqlRecord> mapping = (QueryMapping<SqlRecord>) QueryMapping.of(petClass);
+            SqlRecord pet;
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM PET")) {
+                rs.next();
+                pet = mapping.rowMapper(rs).apply(rs);
+            }
+
+            assertThat(loader.loadClass("test.Pet_SqlMapper").getSuperclass()).isEqualTo(GeneratedMapper.class);
+            assertThat(value(pet, "name")).isEqualTo("Fido");
+            assertThat(value(pet, "age")).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void generates_mapper_for_nested_records() throws Exception {
+        compile("test/Outer.java",
+                "package test;",
+                "import no.utgdev.jdbcdsl.mapping.SqlRecord;",
+                "import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;",
+                "public class Outer {",
+                "    static class Inner implements SqlRecord {",
+                "        final Column<String, String> id;",
+                "        public Inner(Column<String, String> id) {",
+                "            this.id = id;",
+                "        }",
+                "    }",
+                "}");
+
+        assertThat(columns("test.Outer_Inner_SqlMapper")).containsExactly("id");
+    }
+
+    @Test
+    public void skips_records_it_cannot_map() throws Exception {
+        compile("test/Broken.java",
+                "package test;",
+                "import no.utgdev.jdbcdsl.mapping.SqlRecord;",
+                "import no.utgdev.jdbcdsl.mapping.QueryMapping.Column;",
+                "public class Broken {",
+                "    static class NonColumn implements SqlRecord {",
+                "        String name;",
+                "        public NonColumn(String name) {}",
+                "    }",
+                "    static class WrongConstructor implements SqlRecord {",
+                "        Column<String, String> name;",
+                "        public WrongConstructor(Column<String, Boolean> name) {}",
+                "    }",
+                "    static abstract class Abstract implements SqlRecord {",
+                "        Column<String, String> name;",
+                "        public Abstract(Column<String, String> name) {}",
+                "    }",
+                "    private static class Hidden implements SqlRecord {",
+                "        Column<String, String> name;",
+                "        public Hidden(Column<String, String> name) {}",
+                "    }",
+                "}");
+
+        assertThat(Files.list(sources.resolve("test")).map((path) -> path.getFileName().toString()))
+                .containsExactly("Broken.java");
+    }
+
+    private void compile(String file, String... lines) throws IOException {
+        Path source = sources.resolve(file);
+        Files.createDirectories(source.getParent());
+        Files.write(source, Arrays.asList(lines), StandardCharsets.UTF_8);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int result = compiler.run(null, null, null,
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", SqlRecordProcessor.class.getName(),
+                "-s", sources.toString(),
+                "-d", classes.toString(),
+                source.toString());
+        assertThat(result).isEqualTo(0);
+    }
+
+    private String read(String file) throws IOException {
+        return new String(Files.readAllBytes(sources.resolve(file)), StandardCharsets.UTF_8);
+    }
+
+    private static Object value(Object record, String name) throws ReflectiveOperationException {
+        Field field = record.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return ((Column<?, ?>) field.get(record)).value;
+    }
+
+    private String[] columns(String mapper) throws Exception {
+        URL[] urls = {classes.toUri().toURL()};
+        try (URLClassLoader loader = new URLClassLoader(urls, SqlRecord.class.getClassLoader())) {
+            Object instance = loader.loadClass(mapper).getConstructor().newInstance();
+            Method columns = instance.getClass().getMethod("columns");
+            return (String[]) columns.invoke(instance);
+        }
+    }
+}